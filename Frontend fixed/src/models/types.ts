@@ -31,7 +31,7 @@ export type Booking = {
   nights: number;
   pricePerNight: number;
   total: number;
-  status: 'pending_payment' | 'paid';
+  status: 'pending_payment' | 'payment_processing' | 'paid';
 };
 
 export type Payment = {
@@ -40,6 +40,8 @@ export type Payment = {
   userEmail: string;
   amount: number;
   method: 'upi' | 'card';
+  status?: 'PENDING' | 'AUTHORIZED' | 'DECLINED';
+  declineReason?: string;
   createdAt: string;
   details?: any;
 };
@@ -56,6 +58,14 @@ export type Review = {
   reply?: { managerEmail: string; text: string; createdAt: string };
 };
 
+export type ReviewSummary = {
+  hotelId: string;
+  count: number;
+  average: number;
+  histogram: number[];
+  recent: Review[];
+};
+
 export type LoyaltyHistoryItem = { 
   id: string; 
   type: 'earned' | 'redeemed'; 
@@ -84,6 +94,7 @@ export type LoginResponse = {
   username: string;
   roles: string[];
   jwtToken: string;
+  refreshToken: string;
 };
 
 export type HotelRequest = {
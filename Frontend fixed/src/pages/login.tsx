@@ -59,6 +59,7 @@ export default function Login() {
       const role: Role = hasAdmin ? "admin" : hasManager ? "manager" : "user";
       const user = { email: res.username, role, name: res.username } as const;
       localStorage.setItem("token", res.jwtToken);
+      localStorage.setItem("refreshToken", res.refreshToken);
       signIn({ token: res.jwtToken, user });
       console.log("Login - After signIn, navigating to /app");
       navigate("/app", { replace: true });
@@ -24,8 +24,9 @@ export async function getHotelsByStatus(
 }
 
 export async function getAllHotels() {
-  const res = await api.get("/api/admin/hotels");
-  return res.data as AdminHotel[];
+  // Cursor paginated, newest first; the page shows the largest page the API allows
+  const res = await api.get("/api/admin/hotels", { params: { limit: 100 } });
+  return res.data.items as AdminHotel[];
 }
 
 export async function approveHotel(id: string) {
@@ -50,8 +51,8 @@ export async function deleteHotel(id: string) {
 
 // User endpoints
 export async function getAllUsers() {
-  const res = await api.get("/api/admin/users");
-  return res.data as User[];
+  const res = await api.get("/api/admin/users", { params: { limit: 100 } });
+  return res.data.items as User[];
 }
 
 export async function updateUserRole(userId: number, role: string) {
@@ -22,14 +22,46 @@ api.interceptors.request.use(
   }
 );
 
+// One refresh at a time; requests failing meanwhile wait for the same new token
+let refreshing: Promise<string> | null = null;
+
+function refreshAccessToken(): Promise<string> {
+  if (!refreshing) {
+    const refreshToken = localStorage.getItem("refreshToken");
+    refreshing = (
+      refreshToken
+        ? axios
+            .post(`${api.defaults.baseURL}/api/auth/refresh`, { refreshToken })
+            .then((res) => {
+              localStorage.setItem("token", res.data.jwtToken);
+              localStorage.setItem("refreshToken", res.data.refreshToken);
+              return res.data.jwtToken as string;
+            })
+        : Promise.reject(new Error("No refresh token"))
+    ).finally(() => {
+      refreshing = null;
+    });
+  }
+  return refreshing;
+}
+
 // Add response interceptor to handle errors
 api.interceptors.response.use(
   (response) => response,
-  (error) => {
-    if (error.response?.status === 401) {
-      localStorage.removeItem("token");
-      localStorage.removeItem("auth");
-      window.location.href = "/login";
+  async (error) => {
+    const original = error.config;
+    if (error.response?.status === 401 && original && !original._retried) {
+      original._retried = true;
+      try {
+        const token = await refreshAccessToken();
+        original.headers.Authorization = `Bearer ${token}`;
+        return api(original);
+      } catch {
+        localStorage.removeItem("token");
+        localStorage.removeItem("refreshToken");
+        localStorage.removeItem("auth");
+        window.location.href = "/login";
+      }
     }
     return Promise.reject(error);
   }
@@ -25,3 +25,13 @@ export async function register(
   });
   return res.data;
 }
+
+// Revokes the refresh token server side; the access token simply expires
+export async function logout() {
+  const refreshToken = localStorage.getItem("refreshToken");
+  localStorage.removeItem("token");
+  localStorage.removeItem("refreshToken");
+  if (refreshToken) {
+    await api.post("/api/auth/logout", { refreshToken }).catch(() => undefined);
+  }
+}
@@ -6,6 +6,7 @@ import type {
   Booking,
   Payment,
   Review,
+  ReviewSummary,
   LoyaltyInfo,
 } from "@/models/types";
 
@@ -31,14 +32,19 @@ export interface PaymentRequest {
 
 export const createPayment = async (paymentData: PaymentRequest) => {
   const response = await api.post("/api/user/payments", paymentData);
-  return response.data;
+  return response.data as Payment;
+};
+
+export const getPayment = async (paymentId: string) => {
+  const response = await api.get(`/api/user/payments/${paymentId}`);
+  return response.data as Payment;
 };
 // Manager functions
 export const getManagerReviews = async (
   managerEmail: string
 ): Promise<Review[]> => {
-  const response = await api.get(`/api/manager/reviews`);
-  return response.data;
+  const response = await api.get(`/api/manager/reviews`, { params: { limit: 100 } });
+  return response.data.items;
 };
 
 export const replyToReview = async (
@@ -55,9 +61,12 @@ export const replyToReview = async (
 export async function searchHotels(params: {
   location: string;
   roomType: RoomType;
+  checkin?: string;
+  checkout?: string;
 }) {
-  const res = await api.get("/api/hotels", { params });
-  return res.data as HotelSummary[];
+  // Search is cursor paginated; the page asks for the largest page size the API allows
+  const res = await api.get("/api/hotels", { params: { ...params, limit: 100 } });
+  return res.data.items as HotelSummary[];
 }
 
 export async function getHotel(id: string) {
@@ -65,6 +74,12 @@ export async function getHotel(id: string) {
   return res.data as HotelDetail;
 }
 
+// Counts, star histogram and the latest few reviews, without downloading every review
+export async function getReviewSummary(id: string, limit = 3) {
+  const res = await api.get(`/api/hotels/${id}/reviews/summary`, { params: { limit } });
+  return res.data as ReviewSummary;
+}
+
 export async function createBooking(
   data: Omit<Booking, "id" | "status" | "hotelName">
 ) {
@@ -73,13 +88,14 @@ export async function createBooking(
 }
 
 export async function listBookings(userEmail: string) {
-  const res = await api.get("/api/user/bookings");
-  return res.data as Booking[];
+  // The user lists are cursor paginated, newest first
+  const res = await api.get("/api/user/bookings", { params: { limit: 100 } });
+  return res.data.items as Booking[];
 }
 
 export async function listPayments(userEmail: string) {
-  const res = await api.get("/api/user/payments");
-  return res.data as Payment[];
+  const res = await api.get("/api/user/payments", { params: { limit: 100 } });
+  return res.data.items as Payment[];
 }
 
 export async function addReview(data: Omit<Review, "id" | "createdAt">) {
@@ -88,8 +104,8 @@ export async function addReview(data: Omit<Review, "id" | "createdAt">) {
 }
 
 export async function listReviews(userEmail: string) {
-  const res = await api.get("/api/user/reviews");
-  return res.data as Review[];
+  const res = await api.get("/api/user/reviews", { params: { limit: 100 } });
+  return res.data.items as Review[];
 }
 
 export async function getLoyalty(userEmail) {
@@ -13,6 +13,24 @@ export type ManagerHotel = {
   status?: "approved" | "pending" | "rejected";
 };
 
+export type AnalyticsPeriod = {
+  start: string;
+  end: string;
+  revenue: number;
+  roomNightsSold: number;
+  adr: number;
+  occupancy: number;
+};
+
+export type HotelAnalytics = {
+  hotelId: string;
+  hotelName: string;
+  rooms: number;
+  granularity: "DAY" | "WEEK" | "MONTH";
+  total: AnalyticsPeriod;
+  periods: AnalyticsPeriod[];
+};
+
 export type NewHotelPayload = {
   name: string;
   location: string;
@@ -42,11 +60,22 @@ export async function addHotel(payload: NewHotelPayload) {
 }
 
 export async function getManagerBookings(managerEmail: string) {
-  const res = await api.get("/api/manager/bookings");
-  return res.data as Booking[];
+  // Cursor paginated, newest first
+  const res = await api.get("/api/manager/bookings", { params: { limit: 100 } });
+  return res.data.items as Booking[];
+}
+
+export async function getManagerAnalytics(params: {
+  hotelId?: string;
+  from?: string;
+  to?: string;
+  granularity?: "day" | "week" | "month";
+} = {}) {
+  const res = await api.get("/api/manager/analytics", { params });
+  return res.data as HotelAnalytics[];
 }
 
 export async function getManagerReviews(managerEmail: string) {
-  const res = await api.get("/api/manager/reviews");
-  return res.data as Review[];
+  const res = await api.get("/api/manager/reviews", { params: { limit: 100 } });
+  return res.data.items as Review[];
 }
@@ -0,0 +1,36 @@
+package org.example.analytics;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+// How daily rollups are grouped in a report; weeks start on Monday
+public enum Granularity {
+    DAY, WEEK, MONTH;
+
+    LocalDate periodStart(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(DayOfWeek.MONDAY);
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    LocalDate nextPeriodStart(LocalDate start) {
+        return switch (this) {
+            case DAY -> start.plusDays(1);
+            case WEEK -> start.plusWeeks(1);
+            case MONTH -> start.plusMonths(1);
+        };
+    }
+
+    public static Granularity parse(String value) {
+        if (value == null || value.isBlank()) {
+            return DAY;
+        }
+        try {
+            return valueOf(value.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Granularity must be day, week or month");
+        }
+    }
+}
@@ -0,0 +1,173 @@
+package org.example.analytics;
+
+import org.example.dto.Response.AnalyticsPeriodResponse;
+import org.example.dto.Response.HotelAnalyticsResponse;
+import org.example.entity.Hotel;
+import org.example.enums.BookingStatus;
+import org.example.repository.BookingRepository;
+import org.example.repository.HotelDailyStatsRepository;
+import org.example.repository.RoomRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Paid revenue and sold room nights per hotel and night. A booking is added to the nights of its
+ * stay in the same transaction that marks it PAID, its total spread evenly over the nights, so
+ * manager reports read at most one row per hotel and day instead of every booking.
+ */
+@Component
+public class HotelDailyRollup {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelDailyRollup.class);
+
+    private static final int BACKFILL_BATCH_SIZE = 500;
+
+    private static final String INSERT_DAY = "INSERT IGNORE INTO hotel_daily_stats (hotel_id, stay_date, room_nights, revenue) " +
+            "VALUES (?, ?, 0, 0)";
+
+    @Autowired
+    private HotelDailyStatsRepository hotelDailyStatsRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    // Must run inside the transaction that marks the booking PAID; returns false if it was already counted
+    public boolean recordPaid(Long bookingId, Long hotelId, LocalDate checkin, LocalDate checkout, double total) {
+        long nights = ChronoUnit.DAYS.between(checkin, checkout);
+        if (nights <= 0 || bookingRepository.markRolledUp(bookingId, LocalDateTime.now()) == 0) {
+            return false;
+        }
+        // Concurrent payments for the same nights may both insert; the loser's row is ignored
+        List<Object[]> days = new ArrayList<>((int) nights);
+        for (LocalDate day = checkin; day.isBefore(checkout); day = day.plusDays(1)) {
+            days.add(new Object[]{hotelId, day});
+        }
+        jdbcTemplate.batchUpdate(INSERT_DAY, days);
+        hotelDailyStatsRepository.addStay(hotelId, checkin, checkout, total / nights);
+        return true;
+    }
+
+    /**
+     * Rolls up paid bookings that were never counted, such as those paid before the rollup existed.
+     * Each batch commits together with its bookings' rolled-up markers, so an interrupted run
+     * resumes where it stopped, and the marker is claimed by a conditional update, so a second
+     * node or a live payment racing the backfill never counts a booking twice.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfill() {
+        if (!bookingRepository.existsByStatusAndRolledUpAtIsNull(BookingStatus.PAID)) {
+            return;
+        }
+        int bookings = 0;
+        long lastId = 0;
+        List<Object[]> batch;
+        do {
+            batch = bookingRepository.findPaidStays(lastId, Limit.of(BACKFILL_BATCH_SIZE));
+            List<Object[]> stays = batch;
+            Integer recorded = transactionTemplate.execute(status -> {
+                int count = 0;
+                for (Object[] stay : stays) {
+                    if (recordPaid((Long) stay[0], (Long) stay[1], (LocalDate) stay[2], (LocalDate) stay[3],
+                            stay[4] != null ? ((Number) stay[4]).doubleValue() : 0.0)) {
+                        count++;
+                    }
+                }
+                return count;
+            });
+            bookings += recorded != null ? recorded : 0;
+            if (!batch.isEmpty()) {
+                lastId = (Long) batch.get(batch.size() - 1)[0];
+            }
+        } while (batch.size() == BACKFILL_BATCH_SIZE);
+        logger.info("Backfilled daily rollups from {} paid bookings", bookings);
+    }
+
+    public List<HotelAnalyticsResponse> report(List<Hotel> hotels, LocalDate from, LocalDate to, Granularity granularity) {
+        if (hotels.isEmpty()) {
+            return List.of();
+        }
+        List<Long> hotelIds = hotels.stream().map(Hotel::getId).collect(Collectors.toList());
+
+        Map<Long, Integer> rooms = new HashMap<>();
+        for (Object[] row : roomRepository.sumCapacityByHotelIds(hotelIds)) {
+            rooms.put((Long) row[0], row[1] != null ? ((Number) row[1]).intValue() : 0);
+        }
+        Map<Long, TreeMap<LocalDate, Totals>> periods = new HashMap<>();
+        for (Object[] row : hotelDailyStatsRepository.findDays(hotelIds, from, to)) {
+            LocalDate start = granularity.periodStart((LocalDate) row[1]);
+            periods.computeIfAbsent((Long) row[0], id -> new TreeMap<>())
+                    .computeIfAbsent(start, s -> new Totals())
+                    .add((Integer) row[2], (Double) row[3]);
+        }
+
+        List<HotelAnalyticsResponse> reports = new ArrayList<>(hotels.size());
+        for (Hotel hotel : hotels) {
+            int capacity = rooms.getOrDefault(hotel.getId(), 0);
+            Map<LocalDate, Totals> sold = periods.getOrDefault(hotel.getId(), new TreeMap<>());
+            List<AnalyticsPeriodResponse> rows = new ArrayList<>();
+            Totals total = new Totals();
+            // Every period is listed, empty ones with zeros, so charts need no gap filling
+            for (LocalDate start = granularity.periodStart(from); !start.isAfter(to); start = granularity.nextPeriodStart(start)) {
+                LocalDate first = start.isBefore(from) ? from : start;
+                LocalDate last = granularity.nextPeriodStart(start).minusDays(1);
+                if (last.isAfter(to)) {
+                    last = to;
+                }
+                Totals period = sold.getOrDefault(start, new Totals());
+                total.add(period.roomNights, period.revenue);
+                rows.add(period.toResponse(first, last, capacity));
+            }
+            reports.add(new HotelAnalyticsResponse(hotel.getId().toString(), hotel.getName(), capacity,
+                    granularity.name(), total.toResponse(from, to, capacity), rows));
+        }
+        return reports;
+    }
+
+    private static class Totals {
+        private int roomNights;
+        private double revenue;
+
+        void add(int roomNights, double revenue) {
+            this.roomNights += roomNights;
+            this.revenue += revenue;
+        }
+
+        AnalyticsPeriodResponse toResponse(LocalDate first, LocalDate last, int capacity) {
+            long available = (ChronoUnit.DAYS.between(first, last) + 1) * capacity;
+            return new AnalyticsPeriodResponse(first.toString(), last.toString(), round(revenue, 2), roomNights,
+                    roomNights > 0 ? round(revenue / roomNights, 2) : 0.0,
+                    available > 0 ? round((double) roomNights / available, 4) : 0.0);
+        }
+
+        private static double round(double value, int digits) {
+            double scale = Math.pow(10, digits);
+            return Math.round(value * scale) / scale;
+        }
+    }
+}
@@ -1,7 +1,14 @@
 package org.example.controller;
 
+import org.example.dto.Response.CursorPageResponse;
 import org.example.entity.Hotel;
 import org.example.entity.User;
+import org.example.export.DataExporter;
+import org.example.export.ExportQuery;
+import org.example.logging.AccessLog;
+import org.example.metrics.MetricsRegistry;
+import org.example.ratelimit.RateLimiter;
+import org.example.security.BoundedPasswordEncoder;
 import org.example.service.AdminService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -9,6 +16,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.List;
 import java.util.Map;
@@ -22,22 +30,78 @@ public class AdminController {
     @Autowired
     private AdminService adminService;
 
+    @Autowired
+    private DataExporter dataExporter;
+
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private AccessLog accessLog;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Autowired
+    private BoundedPasswordEncoder passwordEncoder;
+
     @GetMapping("/dashboard")
     @PreAuthorize("hasRole('ADMIN')")
     public ResponseEntity<Map<String, Object>> getDashboardStats() {
         return ResponseEntity.ok(adminService.getDashboardStats());
     }
 
+    @GetMapping("/user-cache")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getUserCacheStats() {
+        return ResponseEntity.ok(adminService.getUserCacheStats());
+    }
+
+    @GetMapping("/rate-limits")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getRateLimitStats() {
+        return ResponseEntity.ok(rateLimiter.getStats());
+    }
+
+    // Latency percentiles, errors and SQL statements per route and service method, plus the runtime caches and pools
+    @GetMapping("/metrics")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getMetrics() {
+        Map<String, Object> metrics = metricsRegistry.snapshot();
+        metrics.put("userCache", adminService.getUserCacheStats());
+        metrics.put("rateLimits", rateLimiter.getStats());
+        metrics.put("accessLog", accessLog.getStats());
+        metrics.put("passwordHashing", Map.of("active", passwordEncoder.getActive(),
+                "queued", passwordEncoder.getQueued(), "rejected", passwordEncoder.getRejected()));
+        return ResponseEntity.ok(metrics);
+    }
+
+    @GetMapping("/access-log")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Map<String, Object>> getAccessLogStats() {
+        return ResponseEntity.ok(accessLog.getStats());
+    }
+
     @GetMapping("/users")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<User>> getAllUsers() {
-        return ResponseEntity.ok(adminService.getAllUsers());
+    public ResponseEntity<CursorPageResponse<User>> getAllUsers(@RequestParam(required = false) Integer limit,
+                                                                @RequestParam(required = false) String after) {
+        return ResponseEntity.ok(adminService.getAllUsers(limit, after));
     }
 
     @GetMapping("/hotels")
     @PreAuthorize("hasRole('ADMIN')")
-    public ResponseEntity<List<Hotel>> getAllHotels() {
-        return ResponseEntity.ok(adminService.getAllHotels());
+    public ResponseEntity<CursorPageResponse<Hotel>> getAllHotels(@RequestParam(required = false) Integer limit,
+                                                                  @RequestParam(required = false) String after) {
+        return ResponseEntity.ok(adminService.getAllHotels(limit, after));
+    }
+
+    // Whole tables as CSV or NDJSON, streamed row by row
+    @GetMapping("/export/{dataset}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> export(@PathVariable String dataset,
+                                                        @RequestParam(required = false) String format) {
+        return dataExporter.export(ExportQuery.forAdmin(dataset), Map.of(), format);
     }
 
     @GetMapping("/hotels/{status}")
@@ -2,6 +2,8 @@ package org.example.controller;
 
 import org.example.dto.Request.BookingRequest;
 import org.example.dto.Response.BookingResponse;
+import org.example.dto.Response.CursorPageResponse;
+import org.example.idempotency.IdempotencyService;
 import org.example.service.BookingService;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -9,7 +11,6 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
 
 @RestController
 @RequestMapping("/api/bookings")
@@ -19,20 +20,26 @@ public class BookingController {
     @Autowired
     private BookingService bookingService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @PostMapping
-    public ResponseEntity<BookingResponse> createBooking(
+    public ResponseEntity<?> createBooking(
             @Valid @RequestBody BookingRequest request,
+            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
             Authentication authentication) {
 
         String userEmail = authentication.getName();
-        BookingResponse booking = bookingService.createBooking(request, userEmail);
-        return ResponseEntity.ok(booking);
+        return idempotencyService.execute(userEmail, idempotencyKey, "POST /api/bookings", request,
+                () -> bookingService.createBooking(request, userEmail));
     }
 
     @GetMapping
-    public ResponseEntity<List<BookingResponse>> getUserBookings(Authentication authentication) {
+    public ResponseEntity<CursorPageResponse<BookingResponse>> getUserBookings(@RequestParam(required = false) Integer limit,
+                                                                               @RequestParam(required = false) String after,
+                                                                               Authentication authentication) {
         String userEmail = authentication.getName();
-        List<BookingResponse> bookings = bookingService.getUserBookings(userEmail);
+        CursorPageResponse<BookingResponse> bookings = bookingService.getUserBookings(userEmail, limit, after);
         return ResponseEntity.ok(bookings);
     }
 }
\ No newline at end of file
@@ -1,14 +1,18 @@
 package org.example.controller;
 
+import org.example.dto.Request.HotelSearchRequest;
+import org.example.dto.Response.AvailabilityResponse;
+import org.example.dto.Response.CursorPageResponse;
 import org.example.dto.Response.HotelDetailResponse;
 import org.example.dto.Response.HotelSummaryResponse;
+import org.example.dto.Response.QuoteResponse;
+import org.example.dto.Response.ReviewSummaryResponse;
 import org.example.service.HotelService;
+import org.example.service.ReviewService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-
 @RestController
 @RequestMapping("/api/hotels")
 @CrossOrigin(origins = {"http://localhost:5173"})
@@ -17,12 +21,12 @@ public class HotelController {
     @Autowired
     private HotelService hotelService;
 
-    @GetMapping
-    public ResponseEntity<List<HotelSummaryResponse>> searchHotels(
-            @RequestParam(required = false) String location,
-            @RequestParam(required = false) String roomType) {
+    @Autowired
+    private ReviewService reviewService;
 
-        List<HotelSummaryResponse> hotels = hotelService.searchHotels(location, roomType);
+    @GetMapping
+    public ResponseEntity<CursorPageResponse<HotelSummaryResponse>> searchHotels(@ModelAttribute HotelSearchRequest request) {
+        CursorPageResponse<HotelSummaryResponse> hotels = hotelService.searchHotels(request);
         return ResponseEntity.ok(hotels);
     }
 
@@ -31,4 +35,28 @@ public class HotelController {
         HotelDetailResponse hotel = hotelService.getHotelDetail(id);
         return ResponseEntity.ok(hotel);
     }
-}
\ No newline at end of file
+
+    @GetMapping("/{id}/quote")
+    public ResponseEntity<QuoteResponse> getQuote(@PathVariable Long id,
+                                                  @RequestParam String roomType,
+                                                  @RequestParam String checkin,
+                                                  @RequestParam String checkout) {
+        QuoteResponse quote = hotelService.getQuote(id, roomType, checkin, checkout);
+        return ResponseEntity.ok(quote);
+    }
+
+    @GetMapping("/{id}/availability")
+    public ResponseEntity<AvailabilityResponse> getAvailability(@PathVariable Long id,
+                                                                @RequestParam String checkin,
+                                                                @RequestParam String checkout) {
+        AvailabilityResponse availability = hotelService.getAvailability(id, checkin, checkout);
+        return ResponseEntity.ok(availability);
+    }
+
+    @GetMapping("/{id}/reviews/summary")
+    public ResponseEntity<ReviewSummaryResponse> getReviewSummary(@PathVariable Long id,
+                                                                  @RequestParam(required = false) Integer limit) {
+        ReviewSummaryResponse summary = reviewService.getReviewSummary(id, limit);
+        return ResponseEntity.ok(summary);
+    }
+}
@@ -1,8 +1,15 @@
 package org.example.controller;
 
+import org.example.dto.Request.SeasonalRateRequest;
+import org.example.dto.Response.CursorPageResponse;
+import org.example.dto.Response.HotelAnalyticsResponse;
 import org.example.dto.Response.ManagerBookingResponse;
 import org.example.dto.Response.ManagerHotelResponse;
 import org.example.dto.Response.ManagerReviewResponse;
+import org.example.entity.SeasonalRate;
+import org.example.exceptions.ResourceNotFoundException;
+import org.example.export.DataExporter;
+import org.example.export.ExportQuery;
 import org.example.service.ManagerService;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -13,6 +20,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -27,6 +35,9 @@ public class ManagerController {
     @Autowired
     private ManagerService managerService;
 
+    @Autowired
+    private DataExporter dataExporter;
+
     @PostMapping("/hotels")
     @PreAuthorize("hasRole('MANAGER')")
     public ResponseEntity<?> addHotel(@RequestBody Map<String, Object> hotelData,
@@ -48,6 +59,57 @@ public class ManagerController {
         }
     }
 
+    @PutMapping("/hotels/{id}/rooms/{roomType}/price")
+    @PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<?> updateRoomPrice(@PathVariable Long id,
+                                             @PathVariable String roomType,
+                                             @RequestBody Map<String, Double> priceData,
+                                             Authentication authentication) {
+        try {
+            String managerEmail = authentication.getName();
+            ManagerHotelResponse hotel = managerService.updateRoomPrice(id, roomType, priceData.get("price"), managerEmail);
+            return ResponseEntity.ok(hotel);
+        } catch (ResourceNotFoundException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        } catch (RuntimeException e) {
+            logger.error("Unauthorized price change: ", e);
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+        }
+    }
+
+    @PostMapping("/hotels/{id}/seasonal-rates")
+    @PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<?> addSeasonalRate(@PathVariable Long id,
+                                             @RequestBody SeasonalRateRequest request,
+                                             Authentication authentication) {
+        try {
+            String managerEmail = authentication.getName();
+            SeasonalRate rate = managerService.addSeasonalRate(id, request, managerEmail);
+            return ResponseEntity.ok(rate);
+        } catch (ResourceNotFoundException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        } catch (RuntimeException e) {
+            logger.error("Unauthorized seasonal rate change: ", e);
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+        }
+    }
+
     @GetMapping("/hotels")
     @PreAuthorize("hasRole('MANAGER')")
     public ResponseEntity<?> getManagerHotels(Authentication authentication) {
@@ -65,11 +127,17 @@ public class ManagerController {
 
     @GetMapping("/bookings")
     @PreAuthorize("hasRole('MANAGER')")
-    public ResponseEntity<?> getManagerBookings(Authentication authentication) {
+    public ResponseEntity<?> getManagerBookings(@RequestParam(required = false) Integer limit,
+                                                @RequestParam(required = false) String after,
+                                                Authentication authentication) {
         try {
             String managerEmail = authentication.getName();
-            List<ManagerBookingResponse> bookings = managerService.getManagerBookings(managerEmail);
+            CursorPageResponse<ManagerBookingResponse> bookings = managerService.getManagerBookings(managerEmail, limit, after);
             return ResponseEntity.ok(bookings);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         } catch (Exception e) {
             logger.error("Error getting manager bookings: ", e);
             Map<String, String> errorResponse = new HashMap<>();
@@ -78,13 +146,61 @@ public class ManagerController {
         }
     }
 
+    @GetMapping("/analytics")
+    @PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<?> getAnalytics(@RequestParam(required = false) Long hotelId,
+                                          @RequestParam(required = false) String from,
+                                          @RequestParam(required = false) String to,
+                                          @RequestParam(required = false) String granularity,
+                                          Authentication authentication) {
+        try {
+            String managerEmail = authentication.getName();
+            List<HotelAnalyticsResponse> analytics = managerService.getAnalytics(managerEmail, hotelId, from, to, granularity);
+            return ResponseEntity.ok(analytics);
+        } catch (ResourceNotFoundException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        } catch (RuntimeException e) {
+            logger.error("Unauthorized analytics request: ", e);
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+        }
+    }
+
+    // Every booking of the manager's hotels as CSV or NDJSON, streamed row by row
+    @GetMapping("/export/bookings")
+    @PreAuthorize("hasRole('MANAGER')")
+    public ResponseEntity<?> exportBookings(@RequestParam(required = false) String format,
+                                            Authentication authentication) {
+        try {
+            return dataExporter.export(ExportQuery.MANAGER_BOOKINGS,
+                    Map.of("managerEmail", authentication.getName()), format);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        }
+    }
+
     @GetMapping("/reviews")
     @PreAuthorize("hasRole('MANAGER')")
-    public ResponseEntity<?> getManagerReviews(Authentication authentication) {
+    public ResponseEntity<?> getManagerReviews(@RequestParam(required = false) Integer limit,
+                                               @RequestParam(required = false) String after,
+                                               Authentication authentication) {
         try {
             String managerEmail = authentication.getName();
-            List<ManagerReviewResponse> reviews = managerService.getManagerReviews(managerEmail);
+            CursorPageResponse<ManagerReviewResponse> reviews = managerService.getManagerReviews(managerEmail, limit, after);
             return ResponseEntity.ok(reviews);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         } catch (Exception e) {
             logger.error("Error getting manager reviews: ", e);
             Map<String, String> errorResponse = new HashMap<>();
@@ -1,14 +1,21 @@
 package org.example.controller;
 
 import org.example.dto.Request.BookingRequest;
+import org.example.dto.Request.BulkBookingRequest;
 import org.example.dto.Response.BookingResponse;
+import org.example.dto.Response.CursorPageResponse;
 import org.example.dto.Response.LoyaltyResponse;
 import org.example.dto.Response.LoyaltyHistoryResponse;
 import org.example.dto.Response.PaymentResponse;
 import org.example.dto.Response.ReviewResponse;
 import org.example.entity.Loyalty;
+import org.example.exceptions.BookingExpiredException;
 import org.example.exceptions.DuplicatePaymentException;
+import org.example.exceptions.IdempotencyConflictException;
+import org.example.exceptions.PaymentBacklogException;
 import org.example.exceptions.ResourceNotFoundException;
+import org.example.exceptions.RoomUnavailableException;
+import org.example.idempotency.IdempotencyService;
 import org.example.service.BookingService;
 import org.example.service.LoyaltyService;
 import org.example.service.PaymentService;
@@ -22,6 +29,7 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.format.DateTimeParseException;
 import java.util.List;
 import java.util.Map;
 import java.util.HashMap;
@@ -45,14 +53,26 @@ public class UserController {
     @Autowired
     private LoyaltyService loyaltyService;
 
+    @Autowired
+    private IdempotencyService idempotencyService;
+
     @PostMapping("/bookings")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<?> createBooking(@RequestBody BookingRequest request,
+                                           @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
                                            Authentication authentication) {
         try {
             String userEmail = authentication.getName();
-            BookingResponse booking = bookingService.createBooking(request, userEmail);
-            return ResponseEntity.ok(booking);
+            return idempotencyService.execute(userEmail, idempotencyKey, "POST /api/user/bookings", request,
+                    () -> bookingService.createBooking(request, userEmail));
+        } catch (RoomUnavailableException | IdempotencyConflictException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         } catch (Exception e) {
             logger.error("Error creating booking: ", e);
             Map<String, String> errorResponse = new HashMap<>();
@@ -61,13 +81,48 @@ public class UserController {
         }
     }
 
+    @PostMapping("/bookings/bulk")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> createBookings(@RequestBody BulkBookingRequest request,
+                                            @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
+                                            Authentication authentication) {
+        try {
+            String userEmail = authentication.getName();
+            return idempotencyService.execute(userEmail, idempotencyKey, "POST /api/user/bookings/bulk", request,
+                    () -> bookingService.createBookings(request, userEmail));
+        } catch (RoomUnavailableException | IdempotencyConflictException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        } catch (ResourceNotFoundException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
+        } catch (Exception e) {
+            logger.error("Error creating bulk bookings: ", e);
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", "Failed to create bookings: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(errorResponse);
+        }
+    }
+
     @GetMapping("/bookings")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<?> getUserBookings(Authentication authentication) {
+    public ResponseEntity<?> getUserBookings(@RequestParam(required = false) Integer limit,
+                                             @RequestParam(required = false) String after,
+                                             Authentication authentication) {
         try {
             String userEmail = authentication.getName();
-            List<BookingResponse> bookings = bookingService.getUserBookings(userEmail);
+            CursorPageResponse<BookingResponse> bookings = bookingService.getUserBookings(userEmail, limit, after);
             return ResponseEntity.ok(bookings);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         } catch (Exception e) {
             logger.error("Error getting user bookings: ", e);
             Map<String, String> errorResponse = new HashMap<>();
@@ -79,16 +134,25 @@ public class UserController {
     @PostMapping("/payments")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<?> createPayment(@RequestBody Map<String, Object> paymentData,
+                                           @RequestHeader(value = IdempotencyService.HEADER, required = false) String idempotencyKey,
                                            Authentication authentication) {
         try {
             String userEmail = authentication.getName();
-            PaymentResponse payment = paymentService.createPayment(paymentData, userEmail);
-            return ResponseEntity.ok(payment);
+            return idempotencyService.execute(userEmail, idempotencyKey, "POST /api/user/payments", paymentData,
+                    () -> paymentService.createPayment(paymentData, userEmail));
         } catch (DuplicatePaymentException e) {
             logger.error("Duplicate payment attempt: ", e);
             Map<String, String> errorResponse = new HashMap<>();
             errorResponse.put("error", e.getMessage());
             return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        } catch (BookingExpiredException | IdempotencyConflictException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(errorResponse);
+        } catch (PaymentBacklogException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(errorResponse);
         } catch (ResourceNotFoundException e) {
             logger.error("Resource not found: ", e);
             Map<String, String> errorResponse = new HashMap<>();
@@ -109,11 +173,17 @@ public class UserController {
 
     @GetMapping("/payments")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<?> getUserPayments(Authentication authentication) {
+    public ResponseEntity<?> getUserPayments(@RequestParam(required = false) Integer limit,
+                                             @RequestParam(required = false) String after,
+                                             Authentication authentication) {
         try {
             String userEmail = authentication.getName();
-            List<PaymentResponse> payments = paymentService.getUserPayments(userEmail);
+            CursorPageResponse<PaymentResponse> payments = paymentService.getUserPayments(userEmail, limit, after);
             return ResponseEntity.ok(payments);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         } catch (Exception e) {
             logger.error("Error getting user payments: ", e);
             Map<String, String> errorResponse = new HashMap<>();
@@ -122,6 +192,25 @@ public class UserController {
         }
     }
 
+    @GetMapping("/payments/{id}")
+    @PreAuthorize("hasRole('USER')")
+    public ResponseEntity<?> getPayment(@PathVariable Long id, Authentication authentication) {
+        try {
+            String userEmail = authentication.getName();
+            PaymentResponse payment = paymentService.getPayment(id, userEmail);
+            return ResponseEntity.ok(payment);
+        } catch (ResourceNotFoundException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(errorResponse);
+        } catch (Exception e) {
+            logger.error("Error getting payment: ", e);
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(errorResponse);
+        }
+    }
+
     @PostMapping("/reviews")
     @PreAuthorize("hasRole('USER')")
     public ResponseEntity<?> addReview(@RequestBody Map<String, Object> reviewData,
@@ -150,11 +239,17 @@ public class UserController {
 
     @GetMapping("/reviews")
     @PreAuthorize("hasRole('USER')")
-    public ResponseEntity<?> getUserReviews(Authentication authentication) {
+    public ResponseEntity<?> getUserReviews(@RequestParam(required = false) Integer limit,
+                                            @RequestParam(required = false) String after,
+                                            Authentication authentication) {
         try {
             String userEmail = authentication.getName();
-            List<ReviewResponse> reviews = reviewService.getUserReviews(userEmail);
+            CursorPageResponse<ReviewResponse> reviews = reviewService.getUserReviews(userEmail, limit, after);
             return ResponseEntity.ok(reviews);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> errorResponse = new HashMap<>();
+            errorResponse.put("error", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(errorResponse);
         } catch (Exception e) {
             logger.error("Error getting user reviews: ", e);
             Map<String, String> errorResponse = new HashMap<>();
@@ -0,0 +1,145 @@
+package org.example.dashboard;
+
+import org.example.enums.HotelStatus;
+import org.example.repository.BookingRepository;
+import org.example.repository.HotelRepository;
+import org.example.repository.UserRepository;
+import org.example.transaction.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * The admin dashboard counters, held as one immutable snapshot so serving the dashboard never
+ * touches the database. A refresh rebuilds the snapshot from three aggregate queries (a user
+ * count, hotels grouped by status and bookings with their paid revenue) at start-up and on a
+ * schedule. In between, committed mutations move the counters directly; a delta that races a
+ * refresh can be lost, which the next refresh corrects.
+ */
+@Component
+public class DashboardSnapshot {
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    private final AtomicReference<Stats> current = new AtomicReference<>();
+
+    public Map<String, Object> get() {
+        Stats stats = current.get();
+        if (stats == null) {
+            stats = load();
+        }
+        return stats.toMap();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${spring.app.dashboardRefreshMs:60000}",
+            initialDelayString = "${spring.app.dashboardRefreshMs:60000}")
+    public void refresh() {
+        load();
+    }
+
+    private Stats load() {
+        Map<HotelStatus, Long> hotels = new EnumMap<>(HotelStatus.class);
+        for (Object[] row : hotelRepository.countByStatus()) {
+            if (row[0] != null) {
+                hotels.put((HotelStatus) row[0], (Long) row[1]);
+            }
+        }
+        Object[] bookings = bookingRepository.countBookingsAndRevenue().get(0);
+        Stats stats = new Stats(userRepository.count(), hotels,
+                ((Number) bookings[0]).longValue(), bookings[1] != null ? ((Number) bookings[1]).doubleValue() : 0.0,
+                LocalDateTime.now());
+        current.set(stats);
+        return stats;
+    }
+
+    public void userAdded() {
+        afterCommit(stats -> stats.withUsers(1));
+    }
+
+    public void userRemoved() {
+        afterCommit(stats -> stats.withUsers(-1));
+    }
+
+    public void hotelAdded(HotelStatus status) {
+        afterCommit(stats -> stats.withHotel(status, 1));
+    }
+
+    public void hotelRemoved(HotelStatus status) {
+        afterCommit(stats -> stats.withHotel(status, -1));
+    }
+
+    public void hotelStatusChanged(HotelStatus from, HotelStatus to) {
+        if (from != to) {
+            afterCommit(stats -> stats.withHotel(from, -1).withHotel(to, 1));
+        }
+    }
+
+    public void bookingsCreated(int count) {
+        afterCommit(stats -> stats.withBookings(count));
+    }
+
+    public void revenueAdded(double amount) {
+        afterCommit(stats -> stats.withRevenue(amount));
+    }
+
+    private void afterCommit(UnaryOperator<Stats> delta) {
+        Runnable apply = () -> current.updateAndGet(stats -> stats != null ? delta.apply(stats) : null);
+        AfterCommit.run(apply);
+    }
+
+    private record Stats(long users, Map<HotelStatus, Long> hotels, long bookings, double revenue,
+                        LocalDateTime refreshedAt) {
+
+        Stats withUsers(long delta) {
+            return new Stats(users + delta, hotels, bookings, revenue, refreshedAt);
+        }
+
+        Stats withHotel(HotelStatus status, long delta) {
+            if (status == null) {
+                return this;
+            }
+            Map<HotelStatus, Long> next = new EnumMap<>(HotelStatus.class);
+            next.putAll(hotels);
+            next.merge(status, delta, Long::sum);
+            return new Stats(users, next, bookings, revenue, refreshedAt);
+        }
+
+        Stats withBookings(long delta) {
+            return new Stats(users, hotels, bookings + delta, revenue, refreshedAt);
+        }
+
+        Stats withRevenue(double amount) {
+            return new Stats(users, hotels, bookings, revenue + amount, refreshedAt);
+        }
+
+        Map<String, Object> toMap() {
+            Map<String, Object> map = new LinkedHashMap<>();
+            map.put("totalUsers", users);
+            map.put("totalHotels", hotels.values().stream().mapToLong(Long::longValue).sum());
+            map.put("approvedHotels", hotels.getOrDefault(HotelStatus.APPROVED, 0L));
+            map.put("pendingHotels", hotels.getOrDefault(HotelStatus.PENDING, 0L));
+            map.put("rejectedHotels", hotels.getOrDefault(HotelStatus.REJECTED, 0L));
+            map.put("totalBookings", bookings);
+            map.put("totalRevenue", revenue);
+            map.put("refreshedAt", refreshedAt);
+            return map;
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package org.example.dto.Request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkBookingRequest {
+    @NotNull
+    private List<BookingRequest> bookings;
+}
@@ -10,4 +10,10 @@ import lombok.NoArgsConstructor;
 public class HotelSearchRequest {
     private String location;
     private String roomType;
-}
\ No newline at end of file
+    private String checkin;
+    private String checkout;
+    private Integer guests;
+    private String sort;
+    private String cursor;
+    private Integer limit;
+}
@@ -0,0 +1,23 @@
+package org.example.dto.Request;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class SeasonalRateRequest {
+    @NotNull
+    private String roomType;
+
+    @NotNull
+    private String startDate;
+
+    @NotNull
+    private String endDate; // exclusive, like a check-out date
+
+    @NotNull
+    private Double price;
+}
@@ -0,0 +1,22 @@
+package org.example.dto.Response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+public class AnalyticsPeriodResponse {
+    // First and last night of the period, clipped to the requested range
+    private String start;
+    private String end;
+    private Double revenue;
+    private Integer roomNightsSold;
+    // Average daily rate: revenue per sold room night
+    private Double adr;
+    // Sold room nights over the room nights the hotel had, between 0 and 1
+    private Double occupancy;
+}
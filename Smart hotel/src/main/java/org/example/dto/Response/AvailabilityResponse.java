@@ -0,0 +1,20 @@
+package org.example.dto.Response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+public class AvailabilityResponse {
+    private String hotelId;
+    private String checkin;
+    private String checkout;
+    private Integer nights;
+    private Map<String, Integer> rooms; // rooms free on every night of the stay, keyed by room type
+}
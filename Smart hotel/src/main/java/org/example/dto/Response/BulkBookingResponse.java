@@ -0,0 +1,17 @@
+package org.example.dto.Response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+public class BulkBookingResponse {
+    private List<String> bookingIds; // same order as the request
+    private List<BookingResponse> bookings;
+}
@@ -0,0 +1,22 @@
+package org.example.dto.Response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+public class HotelAnalyticsResponse {
+    private String hotelId;
+    private String hotelName;
+    private Integer rooms;
+    private String granularity;
+    // Totals over the whole range
+    private AnalyticsPeriodResponse total;
+    private List<AnalyticsPeriodResponse> periods;
+}
@@ -1,12 +1,11 @@
 package org.example.dto.Response;
 
-import org.example.entity.Hotel;
 import org.example.enums.RoomType;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.Accessors;
-import org.example.entity.Room;
+import org.example.search.HotelDocument;
 
 @Data
 @NoArgsConstructor
@@ -21,18 +20,13 @@ public class HotelSummaryResponse {
     private Double price;
     private String location;
 
-    public HotelSummaryResponse(Hotel hotel, RoomType roomType) {
+    public HotelSummaryResponse(HotelDocument hotel, RoomType roomType) {
         this.id = hotel.getId().toString();
         this.name = hotel.getName();
-        this.image = hotel.getImages().isEmpty() ? "" : hotel.getImages().get(0);
+        this.image = hotel.getImage();
         this.amenities = hotel.getAmenities().toArray(new String[0]);
         this.rating = hotel.getRating();
         this.location = hotel.getLocation();
-
-        this.price = hotel.getRooms().stream()
-                .filter(room -> roomType == null || room.getType() == roomType)
-                .findFirst()
-                .map(Room::getPrice)
-                .orElse(0.0);
+        this.price = hotel.priceFor(roomType);
     }
 }
\ No newline at end of file
@@ -5,7 +5,7 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import lombok.experimental.Accessors;
 import org.example.entity.Payment;
-import org.example.enums.PaymentMethod;
+import org.example.enums.PaymentStatus;
 
 import java.time.LocalDateTime;
 
@@ -20,7 +20,11 @@ public class PaymentResponse {
     private Double amount;
     private String method;
     private String details;
+    private String status;
+    private String gatewayReference;
+    private String declineReason;
     private LocalDateTime createdAt;
+    private LocalDateTime processedAt;
     private Integer loyaltyPointsEarned;
     private Integer loyaltyPointsUsed;
 
@@ -31,9 +35,14 @@ public class PaymentResponse {
         this.amount = payment.getAmount();
         this.method = payment.getMethod().name();
         this.details = payment.getDetails();
+        PaymentStatus status = payment.getStatus() != null ? payment.getStatus() : PaymentStatus.AUTHORIZED;
+        this.status = status.name();
+        this.gatewayReference = payment.getGatewayReference();
+        this.declineReason = payment.getDeclineReason();
         this.createdAt = payment.getCreatedAt();
-        // Default values - you might want to calculate these based on business logic
-        this.loyaltyPointsEarned = 50; // Fixed 50 points per payment
-        this.loyaltyPointsUsed = 0; // This would need to be stored in payment entity
+        this.processedAt = payment.getProcessedAt();
+        // Points are only earned once the gateway authorized the payment
+        this.loyaltyPointsEarned = status == PaymentStatus.AUTHORIZED ? 50 : 0;
+        this.loyaltyPointsUsed = payment.getLoyaltyPointsUsed() != null ? payment.getLoyaltyPointsUsed() : 0;
     }
 }
\ No newline at end of file
@@ -0,0 +1,24 @@
+package org.example.dto.Response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+public class QuoteResponse {
+    private String hotelId;
+    private String roomType;
+    private String checkin;
+    private String checkout;
+    private Integer nights;
+    private List<Double> nightlyRates;
+    private Double pricePerNight;
+    private Double total;
+    private Long rateVersion;
+}
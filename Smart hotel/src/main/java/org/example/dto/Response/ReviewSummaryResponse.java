@@ -0,0 +1,21 @@
+package org.example.dto.Response;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.experimental.Accessors;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Accessors(chain = true)
+public class ReviewSummaryResponse {
+    private String hotelId;
+    private Integer count;
+    private Double average;
+    // Reviews per star, index 0 holding the one star reviews
+    private List<Integer> histogram;
+    private List<ReviewResponse> recent;
+}
@@ -10,6 +10,7 @@ import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
@@ -19,10 +20,14 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "bookings")
-public class Booking {
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_status_hold", columnList = "status, hold_expires_at, id"),
+        @Index(name = "idx_bookings_user_created", columnList = "user_email, created_at, id"),
+        @Index(name = "idx_bookings_manager_created", columnList = "manager_email, created_at, id")
+})
+public class Booking implements Persistable<Long> {
+    // Assigned from IdBlockAllocator before saving so inserts can be batched
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
 
     @NotNull
@@ -34,6 +39,10 @@ public class Booking {
     @NotNull
     private String userEmail;
 
+    // Copied from the hotel so a manager's bookings can be paged on one index
+    @JsonIgnore
+    private String managerEmail;
+
     @Enumerated(EnumType.STRING)
     private RoomType roomType;
 
@@ -58,4 +67,30 @@ public class Booking {
 
     @CreationTimestamp
     private LocalDateTime createdAt;
+
+    // When an unpaid hold is given up; a declined payment starts a new one
+    @JsonIgnore
+    private LocalDateTime holdExpiresAt;
+
+    // Set by the transaction that adds the booking to hotel_daily_stats, so it is never counted twice
+    @JsonIgnore
+    private LocalDateTime rolledUpAt;
+
+    // Ids are set before saving, so Spring Data cannot tell new bookings apart by a null id
+    @Transient
+    @JsonIgnore
+    @Builder.Default
+    private boolean unsaved = true;
+
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return unsaved;
+    }
+
+    @PostPersist
+    @PostLoad
+    void markSaved() {
+        unsaved = false;
+    }
 }
\ No newline at end of file
@@ -20,7 +20,10 @@ import java.util.List;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "hotels")
+@Table(name = "hotels", indexes = {
+        @Index(name = "idx_hotels_status_id", columnList = "status, id"),
+        @Index(name = "idx_hotels_created", columnList = "created_at, id")
+})
 public class Hotel {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -38,6 +41,7 @@ public class Hotel {
     @ElementCollection
     @CollectionTable(name = "hotel_images", joinColumns = @JoinColumn(name = "hotel_id"))
     @Column(name = "image_url")
+    @OrderColumn(name = "image_order")
     @Builder.Default
     private List<String> images = new ArrayList<>();
 
@@ -47,9 +51,40 @@ public class Hotel {
     @Builder.Default
     private List<String> amenities = new ArrayList<>();
 
+    // Rating and its running aggregates are only written by HotelRatingService's UPDATE statements, so a
+    // hotel saved from a stale copy can never roll back reviews that arrived in the meantime
     @Builder.Default
+    @Column(updatable = false)
     private Double rating = 0.0;
 
+    @Builder.Default
+    @Column(name = "rating_sum", updatable = false)
+    private Long ratingSum = 0L;
+
+    @Builder.Default
+    @Column(name = "rating_count", updatable = false)
+    private Integer ratingCount = 0;
+
+    @Builder.Default
+    @Column(name = "rating_stars_1", updatable = false)
+    private Integer stars1 = 0;
+
+    @Builder.Default
+    @Column(name = "rating_stars_2", updatable = false)
+    private Integer stars2 = 0;
+
+    @Builder.Default
+    @Column(name = "rating_stars_3", updatable = false)
+    private Integer stars3 = 0;
+
+    @Builder.Default
+    @Column(name = "rating_stars_4", updatable = false)
+    private Integer stars4 = 0;
+
+    @Builder.Default
+    @Column(name = "rating_stars_5", updatable = false)
+    private Integer stars5 = 0;
+
     @NotNull
     private String managerEmail;
 
@@ -0,0 +1,40 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// One row per hotel and night: paid room nights and the revenue earned on that night
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "hotel_daily_stats", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_hotel_daily_stats", columnNames = {"hotel_id", "stay_date"})
+})
+public class HotelDailyStats {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "hotel_id")
+    private Long hotelId;
+
+    @NotNull
+    @Column(name = "stay_date")
+    private LocalDate stayDate;
+
+    @NotNull
+    @Column(name = "room_nights")
+    private Integer roomNights;
+
+    @NotNull
+    private Double revenue;
+}
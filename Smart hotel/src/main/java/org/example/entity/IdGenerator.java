@@ -0,0 +1,25 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// Next free id per sequence, handed out in blocks by IdBlockAllocator
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "id_generators")
+public class IdGenerator {
+    @Id
+    @Column(name = "sequence_name")
+    private String sequenceName;
+
+    @NotNull
+    @Column(name = "next_val")
+    private Long nextVal;
+}
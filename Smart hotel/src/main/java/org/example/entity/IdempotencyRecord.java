@@ -0,0 +1,53 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// Claimed before a keyed request runs and completed with its response, so a retry replays instead of re-executing
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "idempotency_keys", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_idempotency_key", columnNames = {"user_email", "idempotency_key"})
+}, indexes = {
+        @Index(name = "idx_idempotency_keys_created", columnList = "created_at")
+})
+public class IdempotencyRecord {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "user_email")
+    private String userEmail;
+
+    @NotNull
+    @Column(name = "idempotency_key", length = 100)
+    private String idempotencyKey;
+
+    // SHA-256 of the endpoint and request body, so a key reused for a different request is rejected
+    @NotNull
+    @Column(name = "request_hash", length = 64)
+    private String requestHash;
+
+    // Null while the request is still running
+    @Lob
+    @Column(name = "response_body", columnDefinition = "TEXT")
+    private String responseBody;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
@@ -2,13 +2,17 @@ package org.example.entity;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import org.example.enums.PaymentMethod;
+import org.example.enums.PaymentStatus;
 import jakarta.persistence.*;
 import lombok.*;
 
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+        @Index(name = "idx_payments_status", columnList = "status, id"),
+        @Index(name = "idx_payments_user_created", columnList = "user_email, created_at, id")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -35,6 +39,25 @@ public class Payment {
 
     private String details;
 
+    // Null on payments taken before authorization moved off the request thread; those were all authorized
+    @Enumerated(EnumType.STRING)
+    @Column(length = 20)
+    @Builder.Default
+    private PaymentStatus status = PaymentStatus.PENDING;
+
+    @Column(name = "loyalty_points_used")
+    @Builder.Default
+    private Integer loyaltyPointsUsed = 0;
+
+    @Column(name = "gateway_reference")
+    private String gatewayReference;
+
+    @Column(name = "decline_reason")
+    private String declineReason;
+
+    @Column(name = "processed_at")
+    private LocalDateTime processedAt;
+
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
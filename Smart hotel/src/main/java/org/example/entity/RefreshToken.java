@@ -0,0 +1,52 @@
+package org.example.entity;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+// One refresh token per row, stored as its SHA-256 so a leaked table cannot renew sessions
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "refresh_tokens", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_refresh_token_hash", columnNames = {"token_hash"})
+}, indexes = {
+        @Index(name = "idx_refresh_tokens_user", columnList = "user_email"),
+        @Index(name = "idx_refresh_tokens_expires", columnList = "expires_at")
+})
+public class RefreshToken {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "user_email")
+    private String userEmail;
+
+    @NotNull
+    @Column(name = "token_hash", length = 64)
+    private String tokenHash;
+
+    @NotNull
+    @Column(name = "expires_at")
+    private LocalDateTime expiresAt;
+
+    // Set when the token is rotated or revoked; presenting it again revokes the user's other tokens
+    @Column(name = "revoked_at")
+    private LocalDateTime revokedAt;
+
+    @Column(name = "created_at")
+    private LocalDateTime createdAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+    }
+}
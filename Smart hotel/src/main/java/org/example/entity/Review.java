@@ -14,7 +14,11 @@ import java.time.LocalDateTime;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "reviews")
+@Table(name = "reviews", indexes = {
+        @Index(name = "idx_reviews_hotel_created", columnList = "hotel_id, created_at, id"),
+        @Index(name = "idx_reviews_user_created", columnList = "user_email, created_at, id"),
+        @Index(name = "idx_reviews_manager_created", columnList = "manager_email, created_at, id")
+})
 public class Review {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -30,6 +34,9 @@ public class Review {
 
     private String userEmail;
 
+    // Copied from the hotel so a manager's reviews can be paged on one index
+    private String managerEmail;
+
     private Integer rating;
 
     @Column(columnDefinition = "TEXT")
@@ -0,0 +1,45 @@
+package org.example.entity;
+
+import org.example.enums.RoomType;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// One row per hotel, room type and night; the database side guard against overselling
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "room_inventory_days", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_room_inventory_day", columnNames = {"hotel_id", "room_type", "stay_date"})
+})
+public class RoomInventoryDay {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @Column(name = "hotel_id")
+    private Long hotelId;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    @Column(name = "room_type")
+    private RoomType roomType;
+
+    @NotNull
+    @Column(name = "stay_date")
+    private LocalDate stayDate;
+
+    @NotNull
+    private Integer capacity;
+
+    @NotNull
+    private Integer reserved;
+}
@@ -0,0 +1,46 @@
+package org.example.entity;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import org.example.enums.RoomType;
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+
+// Nightly price for a room type that replaces Room.price between startDate and endDate (exclusive)
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@Entity
+@Table(name = "seasonal_rates", indexes = {
+        @Index(name = "idx_seasonal_rates_hotel", columnList = "hotel_id, room_type, start_date")
+})
+public class SeasonalRate {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @NotNull
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "hotel_id")
+    @JsonIgnore
+    private Hotel hotel;
+
+    @NotNull
+    @Enumerated(EnumType.STRING)
+    private RoomType roomType;
+
+    @NotNull
+    private LocalDate startDate;
+
+    @NotNull
+    private LocalDate endDate;
+
+    @NotNull
+    private Double price;
+}
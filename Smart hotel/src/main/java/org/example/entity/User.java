@@ -21,7 +21,9 @@ import java.util.Collection;
 @NoArgsConstructor
 @AllArgsConstructor
 @Entity
-@Table(name = "Users")
+@Table(name = "Users", indexes = {
+        @Index(name = "idx_users_created", columnList = "created_at, id")
+})
 public class User implements UserDetails {
 
     @Id
@@ -1,5 +1,5 @@
 package org.example.enums;
 
 public enum BookingStatus {
-    PENDING_PAYMENT, PAID
-}
\ No newline at end of file
+    PENDING_PAYMENT, PAYMENT_PROCESSING, PAID, EXPIRED
+}
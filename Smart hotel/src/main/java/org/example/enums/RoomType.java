@@ -1,5 +1,20 @@
 package org.example.enums;
 
 public enum RoomType {
-    STANDARD, DELUXE, SUITE
-}
\ No newline at end of file
+    STANDARD(2), DELUXE(3), SUITE(4);
+
+    private final int maxGuests;
+
+    RoomType(int maxGuests) {
+        this.maxGuests = maxGuests;
+    }
+
+    public int getMaxGuests() {
+        return maxGuests;
+    }
+
+    // Rooms of this type needed to sleep the whole party
+    public int roomsFor(int guests) {
+        return Math.max(1, (guests + maxGuests - 1) / maxGuests);
+    }
+}
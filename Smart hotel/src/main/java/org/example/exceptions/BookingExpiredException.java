@@ -0,0 +1,7 @@
+package org.example.exceptions;
+
+public class BookingExpiredException extends RuntimeException {
+    public BookingExpiredException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,7 @@
+package org.example.exceptions;
+
+public class PasswordHashingBusyException extends RuntimeException {
+    public PasswordHashingBusyException(String message) {
+        super(message);
+    }
+}
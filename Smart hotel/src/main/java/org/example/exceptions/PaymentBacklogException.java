@@ -0,0 +1,7 @@
+package org.example.exceptions;
+
+public class PaymentBacklogException extends RuntimeException {
+    public PaymentBacklogException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,226 @@
+package org.example.export;
+
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.SessionFactory;
+import org.hibernate.StatelessSession;
+import org.hibernate.query.SelectionQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streams a table to the client as CSV or NDJSON without holding it in memory. Rows are read
+ * through a stateless session, so nothing accumulates in a persistence context, with a forward
+ * only cursor of a fixed fetch size, and each row is written out before the next is read.
+ * On MySQL the fetch size only takes effect with useCursorFetch=true on the JDBC URL, which would
+ * turn every other query into a server-side cursor too, so exports read through a small pool of
+ * their own when {@code spring.app.exportDatasourceUrl} is set and through the shared one otherwise.
+ */
+@Component
+public class DataExporter {
+
+    private static final Logger logger = LoggerFactory.getLogger(DataExporter.class);
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private DataSourceProperties dataSourceProperties;
+
+    @Value("${spring.app.exportFetchSize:500}")
+    private int fetchSize;
+
+    @Value("${spring.app.exportDatasourceUrl:}")
+    private String exportUrl;
+
+    @Value("${spring.app.exportMaxConnections:2}")
+    private int maxConnections;
+
+    private HikariDataSource exportDataSource;
+
+    @PostConstruct
+    public void init() {
+        if (!exportUrl.isBlank()) {
+            exportDataSource = dataSourceProperties.initializeDataSourceBuilder()
+                    .type(HikariDataSource.class)
+                    .url(exportUrl)
+                    .build();
+            exportDataSource.setPoolName("export");
+            exportDataSource.setMaximumPoolSize(maxConnections);
+            exportDataSource.setMinimumIdle(0);
+            exportDataSource.setReadOnly(true);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (exportDataSource != null) {
+            exportDataSource.close();
+        }
+    }
+
+    public ResponseEntity<StreamingResponseBody> export(ExportQuery query, Map<String, Object> parameters, String format) {
+        ExportFormat exportFormat = ExportFormat.parse(format);
+        String filename = query.name() + "-" + LocalDate.now() + "." + exportFormat.getExtension();
+        StreamingResponseBody body = out -> write(query, parameters, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(exportFormat.getMediaType())
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+                .body(body);
+    }
+
+    private void write(ExportQuery query, Map<String, Object> parameters, ExportFormat format, OutputStream out)
+            throws IOException {
+        SessionFactory sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        long rows = 0;
+        try (Connection connection = exportConnection();
+             StatelessSession session = connection != null
+                     ? sessionFactory.withStatelessOptions().connection(connection).openStatelessSession()
+                     : sessionFactory.openStatelessSession();
+             RowWriter writer = format == ExportFormat.CSV ? new CsvWriter(out) : new NdjsonWriter(out)) {
+            SelectionQuery<Object[]> selection = session.createSelectionQuery(query.hql(), Object[].class)
+                    .setFetchSize(fetchSize)
+                    .setReadOnly(true);
+            parameters.forEach(selection::setParameter);
+
+            writer.header(query.columns());
+            try (ScrollableResults<Object[]> results = selection.scroll(ScrollMode.FORWARD_ONLY)) {
+                while (results.next()) {
+                    writer.row(query.columns(), results.get());
+                    rows++;
+                }
+            }
+        } catch (SQLException e) {
+            throw new DataAccessResourceFailureException("Export connection failed", e);
+        }
+        logger.info("Exported {} {} rows as {}", rows, query.name(), format.getExtension());
+    }
+
+    // Closed by the caller; a stateless session never closes a connection it was handed
+    private Connection exportConnection() throws SQLException {
+        return exportDataSource != null ? exportDataSource.getConnection() : null;
+    }
+
+    private interface RowWriter extends AutoCloseable {
+        void header(List<String> columns) throws IOException;
+
+        void row(List<String> columns, Object[] values) throws IOException;
+
+        @Override
+        void close() throws IOException;
+    }
+
+    private static class CsvWriter implements RowWriter {
+        private final Writer writer;
+
+        CsvWriter(OutputStream out) {
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void header(List<String> columns) throws IOException {
+            line(columns.toArray());
+        }
+
+        @Override
+        public void row(List<String> columns, Object[] values) throws IOException {
+            line(values);
+        }
+
+        private void line(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(escape(values[i]));
+            }
+            writer.write("\r\n");
+        }
+
+        // RFC 4180 quoting; text that a spreadsheet would run as a formula is prefixed with a quote
+        private static String escape(Object value) {
+            if (value == null) {
+                return "";
+            }
+            String text = value instanceof Enum<?> e ? e.name() : value.toString();
+            if (!(value instanceof Number) && !text.isEmpty() && "=+-@".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+                return '"' + text.replace("\"", "\"\"") + '"';
+            }
+            return text;
+        }
+
+        @Override
+        public void close() throws IOException {
+            writer.flush();
+        }
+    }
+
+    private class NdjsonWriter implements RowWriter {
+        private final JsonGenerator generator;
+
+        NdjsonWriter(OutputStream out) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(out, JsonEncoding.UTF8);
+            // One object per line, nothing between them but the newline
+            generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void header(List<String> columns) {
+        }
+
+        @Override
+        public void row(List<String> columns, Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < values.length; i++) {
+                generator.writeFieldName(columns.get(i));
+                Object value = values[i];
+                if (value == null || value instanceof Number || value instanceof Boolean) {
+                    generator.writeObject(value);
+                } else {
+                    generator.writeString(value instanceof Enum<?> e ? e.name() : value.toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void close() throws IOException {
+            generator.flush();
+        }
+    }
+}
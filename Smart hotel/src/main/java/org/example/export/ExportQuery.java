@@ -0,0 +1,38 @@
+package org.example.export;
+
+import java.util.List;
+
+// A flat HQL projection and the names of its columns, in select order
+public record ExportQuery(String name, List<String> columns, String hql) {
+
+    public static final ExportQuery USERS = new ExportQuery("users",
+            List.of("id", "email", "name", "role", "createdAt"),
+            "SELECT u.id, u.email, u.name, u.role, u.createdAt FROM User u ORDER BY u.id");
+
+    public static final ExportQuery HOTELS = new ExportQuery("hotels",
+            List.of("id", "name", "location", "status", "managerEmail", "rating", "ratingCount", "createdAt"),
+            "SELECT h.id, h.name, h.location, h.status, h.managerEmail, h.rating, h.ratingCount, h.createdAt " +
+                    "FROM Hotel h ORDER BY h.id");
+
+    private static final List<String> BOOKING_COLUMNS = List.of("id", "hotelId", "hotelName", "userEmail", "roomType",
+            "checkin", "checkout", "nights", "pricePerNight", "total", "status", "createdAt");
+
+    private static final String BOOKING_SELECT = "SELECT b.id, h.id, h.name, b.userEmail, b.roomType, b.checkin, " +
+            "b.checkout, b.nights, b.pricePerNight, b.total, b.status, b.createdAt FROM Booking b JOIN b.hotel h ";
+
+    public static final ExportQuery BOOKINGS = new ExportQuery("bookings", BOOKING_COLUMNS,
+            BOOKING_SELECT + "ORDER BY b.id");
+
+    // Takes a managerEmail parameter
+    public static final ExportQuery MANAGER_BOOKINGS = new ExportQuery("bookings", BOOKING_COLUMNS,
+            BOOKING_SELECT + "WHERE b.managerEmail = :managerEmail ORDER BY b.id");
+
+    public static ExportQuery forAdmin(String dataset) {
+        return switch (dataset == null ? "" : dataset.toLowerCase()) {
+            case "users" -> USERS;
+            case "hotels" -> HOTELS;
+            case "bookings" -> BOOKINGS;
+            default -> throw new IllegalArgumentException("Unknown export: " + dataset + ", expected users, hotels or bookings");
+        };
+    }
+}
@@ -0,0 +1,184 @@
+package org.example.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.entity.IdempotencyRecord;
+import org.example.exceptions.IdempotencyConflictException;
+import org.example.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Runs a POST at most once per (user, Idempotency-Key). The first request claims the key with an
+ * insert against a unique constraint, so concurrent retries on any node cannot both execute, and
+ * stores the response once the action succeeds. Completed responses are also kept in a bounded
+ * LRU, so the usual retry after a client timeout is replayed without touching the database.
+ * Failed requests release their claim; nothing was committed, so the client may simply retry.
+ */
+@Component
+public class IdempotencyService {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final Logger logger = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private static final int MAX_KEY_LENGTH = 100;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${spring.app.idempotencyTtlHours:24}")
+    private long ttlHours;
+
+    private final ResponseCache cache;
+
+    public IdempotencyService(@Value("${spring.app.idempotencyCacheSize:10000}") int cacheSize) {
+        this.cache = new ResponseCache(cacheSize);
+    }
+
+    public <T> ResponseEntity<?> execute(String userEmail, String key, String endpoint, Object request,
+                                         Supplier<T> action) {
+        if (key == null || key.isBlank()) {
+            return ResponseEntity.ok(action.get());
+        }
+        if (key.length() > MAX_KEY_LENGTH) {
+            throw new IllegalArgumentException(HEADER + " must be at most " + MAX_KEY_LENGTH + " characters");
+        }
+        CacheKey cacheKey = new CacheKey(userEmail, key);
+        String requestHash = hash(endpoint, request);
+
+        StoredResponse stored = cache.get(cacheKey);
+        if (stored != null && isFresh(stored.createdAt())) {
+            return replay(stored, requestHash);
+        }
+
+        Long claimId;
+        try {
+            claimId = transactionTemplate.execute(status -> idempotencyRecordRepository.save(IdempotencyRecord.builder()
+                    .userEmail(userEmail)
+                    .idempotencyKey(key)
+                    .requestHash(requestHash)
+                    .build()).getId());
+        } catch (DataIntegrityViolationException e) {
+            IdempotencyRecord existing = idempotencyRecordRepository.findByUserEmailAndIdempotencyKey(userEmail, key)
+                    .orElseThrow(() -> new IdempotencyConflictException("Request with this " + HEADER
+                            + " is still in progress"));
+            if (!isFresh(existing.getCreatedAt())) {
+                // Past its TTL the key is free again, just as if the sweep had already purged it
+                transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.deleteById(existing.getId()));
+                return execute(userEmail, key, endpoint, request, action);
+            }
+            if (existing.getResponseBody() == null) {
+                throw new IdempotencyConflictException("Request with this " + HEADER + " is still in progress");
+            }
+            stored = new StoredResponse(existing.getRequestHash(), existing.getResponseBody(), existing.getCreatedAt());
+            cache.put(cacheKey, stored);
+            return replay(stored, requestHash);
+        }
+
+        T result;
+        try {
+            result = action.get();
+        } catch (RuntimeException e) {
+            transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.deleteById(claimId));
+            throw e;
+        }
+
+        try {
+            String body = objectMapper.writeValueAsString(result);
+            transactionTemplate.executeWithoutResult(status -> idempotencyRecordRepository.complete(claimId, body));
+            cache.put(cacheKey, new StoredResponse(requestHash, body, LocalDateTime.now()));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // The action already committed; a retry now sees an in-progress key until the record expires
+            logger.error("Failed to store response for {} {}: {}", HEADER, key, e.getMessage());
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @Scheduled(fixedDelayString = "${spring.app.idempotencySweepIntervalMs:3600000}",
+            initialDelayString = "${spring.app.idempotencySweepIntervalMs:3600000}")
+    public void purgeExpired() {
+        Integer purged = transactionTemplate.execute(status ->
+                idempotencyRecordRepository.deleteCreatedBefore(LocalDateTime.now().minusHours(ttlHours)));
+        if (purged != null && purged > 0) {
+            logger.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private boolean isFresh(LocalDateTime createdAt) {
+        return createdAt.isAfter(LocalDateTime.now().minusHours(ttlHours));
+    }
+
+    private ResponseEntity<?> replay(StoredResponse stored, String requestHash) {
+        if (!stored.requestHash().equals(requestHash)) {
+            throw new IdempotencyConflictException(HEADER + " was already used for a different request");
+        }
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(REPLAYED_HEADER, "true")
+                .body(stored.body());
+    }
+
+    private String hash(String endpoint, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(endpoint.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Failed to fingerprint request", e);
+        }
+    }
+
+    private record CacheKey(String userEmail, String key) {
+    }
+
+    private record StoredResponse(String requestHash, String body, LocalDateTime createdAt) {
+    }
+
+    // Access ordered LinkedHashMap evicting the least recently used response once full
+    private static class ResponseCache {
+        private final Map<CacheKey, StoredResponse> entries;
+
+        ResponseCache(int capacity) {
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<CacheKey, StoredResponse> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized StoredResponse get(CacheKey key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(CacheKey key, StoredResponse response) {
+            entries.put(key, response);
+        }
+    }
+}
@@ -0,0 +1,282 @@
+package org.example.inventory;
+
+import org.example.entity.Room;
+import org.example.enums.BookingStatus;
+import org.example.enums.RoomType;
+import org.example.exceptions.RoomUnavailableException;
+import org.example.repository.BookingRepository;
+import org.example.repository.RoomInventoryDayRepository;
+import org.example.repository.RoomRepository;
+import org.example.transaction.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Per-hotel, per-room-type daily inventory. Capacity comes from {@link Room#getAvailable()} and
+ * live bookings are replayed once when a hotel/room type is first touched; after that every
+ * availability check and reservation is answered from memory.
+ *
+ * <p>A booking goes through two guards: {@link #hold} claims the nights in memory under a lock
+ * striped by hotel and room type, so unrelated hotels never wait on each other, and
+ * {@link #confirm} repeats the claim as a conditional UPDATE on {@code room_inventory_days}
+ * inside the booking transaction, so the database never accepts more than capacity either.
+ */
+@Component
+public class AvailabilityEngine {
+
+    static final List<BookingStatus> HOLDING_STATUSES =
+            List.of(BookingStatus.PENDING_PAYMENT, BookingStatus.PAYMENT_PROCESSING, BookingStatus.PAID);
+
+    private static final Logger logger = LoggerFactory.getLogger(AvailabilityEngine.class);
+
+    private static final int STRIPES = 64;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomInventoryDayRepository roomInventoryDayRepository;
+
+    @Autowired
+    private InventoryLedger inventoryLedger;
+
+    @Value("${spring.app.inventoryHorizonDays:365}")
+    private int horizonDays;
+
+    private final Map<InventoryKey, DailyInventory> inventories = new ConcurrentHashMap<>();
+
+    private final ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+
+    public AvailabilityEngine() {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    public int available(Long hotelId, RoomType roomType, LocalDate checkin, LocalDate checkout) {
+        int nights = validateStay(checkin, checkout);
+        InventoryKey key = new InventoryKey(hotelId, roomType);
+        ReentrantLock lock = stripe(key);
+        lock.lock();
+        try {
+            return inventory(key).available(checkin, nights);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Whether the stay fits in one of the given room types; callers pass only types the hotel has
+    public boolean hasRoom(Long hotelId, Collection<RoomType> roomTypes, LocalDate checkin, LocalDate checkout, int guests) {
+        int nights = (int) ChronoUnit.DAYS.between(checkin, checkout);
+        for (RoomType type : roomTypes) {
+            InventoryKey key = new InventoryKey(hotelId, type);
+            ReentrantLock lock = stripe(key);
+            lock.lock();
+            try {
+                if (inventory(key).available(checkin, nights) >= type.roomsFor(guests)) {
+                    return true;
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return false;
+    }
+
+    public Map<RoomType, Integer> availability(Long hotelId, LocalDate checkin, LocalDate checkout) {
+        validateStay(checkin, checkout);
+        Map<RoomType, Integer> result = new EnumMap<>(RoomType.class);
+        for (RoomType type : RoomType.values()) {
+            InventoryKey key = new InventoryKey(hotelId, type);
+            ReentrantLock lock = stripe(key);
+            lock.lock();
+            try {
+                DailyInventory inventory = inventory(key);
+                if (inventory.getCapacity() > 0) {
+                    result.put(type, inventory.available(checkin, (int) ChronoUnit.DAYS.between(checkin, checkout)));
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        return result;
+    }
+
+    // Claims the nights in memory; must be called outside the booking transaction
+    public void hold(Long hotelId, RoomType roomType, LocalDate checkin, LocalDate checkout, int rooms) {
+        int nights = validateStay(checkin, checkout);
+        InventoryKey key = new InventoryKey(hotelId, roomType);
+        ReentrantLock lock = stripe(key);
+        lock.lock();
+        try {
+            DailyInventory inventory = inventory(key);
+            if (inventory.available(checkin, nights) < rooms) {
+                throw unavailable(roomType, checkin, checkout);
+            }
+            // Ledger rows start from the in-memory counters, and are committed before the lock is released
+            if (!inventory.isPersisted(checkin, nights)) {
+                inventoryLedger.seed(key, checkin, checkout, inventory);
+                inventory.markPersisted(checkin, nights);
+            }
+            inventory.tryReserve(checkin, nights, rooms);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Database half of the reservation, joins the caller's transaction so a short count rolls back the nights it did update
+    public void confirm(Long hotelId, RoomType roomType, LocalDate checkin, LocalDate checkout, int rooms) {
+        int nights = (int) ChronoUnit.DAYS.between(checkin, checkout);
+        if (roomInventoryDayRepository.reserve(hotelId, roomType, checkin, checkout, rooms) != nights) {
+            throw unavailable(roomType, checkin, checkout);
+        }
+    }
+
+    // Gives back a hold whose booking was never committed
+    public void dropHold(Long hotelId, RoomType roomType, LocalDate checkin, LocalDate checkout, int rooms) {
+        LocalDate from = checkin.isBefore(LocalDate.now()) ? LocalDate.now() : checkin;
+        if (!checkout.isAfter(from)) {
+            return;
+        }
+        InventoryKey key = new InventoryKey(hotelId, roomType);
+        ReentrantLock lock = stripe(key);
+        lock.lock();
+        try {
+            DailyInventory inventory = inventories.get(key);
+            if (inventory != null) {
+                inventory.release(from, (int) ChronoUnit.DAYS.between(from, checkout), rooms);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Returns the nights of a committed booking: the ledger now, memory once the transaction commits
+    public void release(Long hotelId, RoomType roomType, LocalDate checkin, LocalDate checkout, int rooms) {
+        roomInventoryDayRepository.release(hotelId, roomType, checkin, checkout, rooms);
+        AfterCommit.run(() -> dropHold(hotelId, roomType, checkin, checkout, rooms));
+    }
+
+    /**
+     * Builds the counters of every hotel and room type with two queries at startup, so search
+     * can filter by dates without falling back to per-hotel loads. Keys already touched by a
+     * booking are left alone.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        Map<InventoryKey, DailyInventory> loaded = new HashMap<>();
+        for (Object[] row : roomRepository.sumCapacityByHotelAndType()) {
+            InventoryKey key = new InventoryKey((Long) row[0], (RoomType) row[1]);
+            loaded.put(key, new DailyInventory(((Number) row[2]).intValue(), horizonDays));
+        }
+        // Hotels lacking a room type still get an empty entry so lookups never hit the database
+        for (Long hotelId : loaded.keySet().stream().map(InventoryKey::hotelId).distinct().toList()) {
+            for (RoomType type : RoomType.values()) {
+                loaded.putIfAbsent(new InventoryKey(hotelId, type), new DailyInventory(0, horizonDays));
+            }
+        }
+
+        LocalDate today = LocalDate.now();
+        for (Object[] stay : bookingRepository.findAllStaysForInventory(today, HOLDING_STATUSES)) {
+            DailyInventory inventory = loaded.get(new InventoryKey((Long) stay[0], (RoomType) stay[1]));
+            if (inventory != null) {
+                inventory.apply((LocalDate) stay[2], (LocalDate) stay[3], today, 1);
+            }
+        }
+
+        loaded.forEach((key, inventory) -> {
+            ReentrantLock lock = stripe(key);
+            lock.lock();
+            try {
+                inventories.putIfAbsent(key, inventory);
+            } finally {
+                lock.unlock();
+            }
+        });
+        logger.info("Availability engine warmed with {} hotel room types", loaded.size());
+    }
+
+    // Drops counters and ledger rows so the next access rebuilds both from rooms and bookings
+    @Transactional
+    public void evict(Long hotelId) {
+        roomInventoryDayRepository.deleteByHotelId(hotelId);
+        // Under the same stripe locks as every other access, so a running hold never loses its counters halfway
+        for (RoomType type : RoomType.values()) {
+            InventoryKey key = new InventoryKey(hotelId, type);
+            ReentrantLock lock = stripe(key);
+            lock.lock();
+            try {
+                inventories.remove(key);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private ReentrantLock stripe(InventoryKey key) {
+        return stripes[Math.floorMod(key.hashCode(), STRIPES)];
+    }
+
+    // Caller holds the stripe lock, so a key is only ever loaded once
+    private DailyInventory inventory(InventoryKey key) {
+        DailyInventory inventory = inventories.get(key);
+        if (inventory == null) {
+            inventory = load(key);
+            inventories.put(key, inventory);
+        }
+        return inventory;
+    }
+
+    private DailyInventory load(InventoryKey key) {
+        int capacity = roomRepository.findByHotelId(key.hotelId()).stream()
+                .filter(room -> room.getType() == key.roomType())
+                .mapToInt(Room::getAvailable)
+                .sum();
+        DailyInventory inventory = new DailyInventory(capacity, horizonDays);
+        LocalDate today = LocalDate.now();
+        for (Object[] stay : bookingRepository.findStaysForInventory(
+                key.hotelId(), key.roomType(), today, HOLDING_STATUSES)) {
+            inventory.apply((LocalDate) stay[0], (LocalDate) stay[1], today, 1);
+        }
+        return inventory;
+    }
+
+    private RoomUnavailableException unavailable(RoomType roomType, LocalDate checkin, LocalDate checkout) {
+        return new RoomUnavailableException("No " + roomType.name().toLowerCase()
+                + " rooms available from " + checkin + " to " + checkout);
+    }
+
+    public int validateStay(LocalDate checkin, LocalDate checkout) {
+        if (checkin == null || checkout == null || !checkout.isAfter(checkin)) {
+            throw new IllegalArgumentException("Check-out date must be after check-in date");
+        }
+        LocalDate today = LocalDate.now();
+        if (checkin.isBefore(today)) {
+            throw new IllegalArgumentException("Check-in date cannot be in the past");
+        }
+        if (checkout.isAfter(today.plusDays(horizonDays))) {
+            throw new IllegalArgumentException("Bookings are only open " + horizonDays + " days ahead");
+        }
+        return (int) ChronoUnit.DAYS.between(checkin, checkout);
+    }
+}
@@ -0,0 +1,132 @@
+package org.example.inventory;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Reserved-room counters for one hotel and room type, one slot per night inside a rolling
+ * horizon. Slots are addressed by epoch day modulo the horizon and remember which day they
+ * hold, so the window slides forward without rebuilding and every check is O(nights).
+ * The slot arrays are only allocated once a night is actually booked, so the many hotels and
+ * room types without bookings cost a few bytes each.
+ * Not thread safe on its own; {@link AvailabilityEngine} guards it with the stripe lock of its key.
+ */
+public class DailyInventory {
+    private final int capacity;
+    private final int horizonDays;
+    private long[] slotDays;
+    private int[] reserved;
+    private boolean[] persisted;
+
+    public DailyInventory(int capacity, int horizonDays) {
+        this.capacity = capacity;
+        this.horizonDays = horizonDays;
+    }
+
+    public int getCapacity() {
+        return capacity;
+    }
+
+    public int getHorizonDays() {
+        return horizonDays;
+    }
+
+    public int reservedOn(LocalDate day) {
+        return reservedOn(day.toEpochDay());
+    }
+
+    public int available(LocalDate checkin, int nights) {
+        if (slotDays == null) {
+            return capacity;
+        }
+        long first = checkin.toEpochDay();
+        int minFree = capacity;
+        for (long day = first; day < first + nights; day++) {
+            minFree = Math.min(minFree, capacity - reservedOn(day));
+        }
+        return Math.max(minFree, 0);
+    }
+
+    // Whether every night already has its room_inventory_days row
+    public boolean isPersisted(LocalDate checkin, int nights) {
+        if (slotDays == null) {
+            return false;
+        }
+        long first = checkin.toEpochDay();
+        for (long day = first; day < first + nights; day++) {
+            int slot = slot(day);
+            if (slotDays[slot] != day || !persisted[slot]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public void markPersisted(LocalDate checkin, int nights) {
+        long first = checkin.toEpochDay();
+        for (long day = first; day < first + nights; day++) {
+            int slot = slot(day);
+            claim(slot, day);
+            persisted[slot] = true;
+        }
+    }
+
+    public boolean tryReserve(LocalDate checkin, int nights, int rooms) {
+        if (available(checkin, nights) < rooms) {
+            return false;
+        }
+        adjust(checkin, nights, rooms);
+        return true;
+    }
+
+    public void release(LocalDate checkin, int nights, int rooms) {
+        adjust(checkin, nights, -rooms);
+    }
+
+    // Used while loading existing bookings; nights outside the horizon are ignored
+    public void apply(LocalDate checkin, LocalDate checkout, LocalDate today, int rooms) {
+        long from = Math.max(checkin.toEpochDay(), today.toEpochDay());
+        long to = Math.min(checkout.toEpochDay(), today.toEpochDay() + horizonDays);
+        for (long day = from; day < to; day++) {
+            int slot = slot(day);
+            claim(slot, day);
+            reserved[slot] += rooms;
+        }
+    }
+
+    private void adjust(LocalDate checkin, int nights, int delta) {
+        long first = checkin.toEpochDay();
+        for (long day = first; day < first + nights; day++) {
+            int slot = slot(day);
+            claim(slot, day);
+            reserved[slot] = Math.max(0, reserved[slot] + delta);
+        }
+    }
+
+    private int reservedOn(long day) {
+        if (slotDays == null) {
+            return 0;
+        }
+        int slot = slot(day);
+        return slotDays[slot] == day ? reserved[slot] : 0;
+    }
+
+    // A slot still holding an earlier day is stale and starts over at zero
+    private void claim(int slot, long day) {
+        if (slotDays == null) {
+            slotDays = new long[horizonDays];
+            reserved = new int[horizonDays];
+            persisted = new boolean[horizonDays];
+            Arrays.fill(slotDays, Long.MIN_VALUE);
+        }
+        if (slotDays[slot] != day) {
+            slotDays[slot] = day;
+            reserved[slot] = 0;
+            persisted[slot] = false;
+        }
+    }
+
+    private int slot(long day) {
+        return (int) Math.floorMod(day, (long) horizonDays);
+    }
+}
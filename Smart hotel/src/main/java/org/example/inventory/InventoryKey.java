@@ -0,0 +1,6 @@
+package org.example.inventory;
+
+import org.example.enums.RoomType;
+
+public record InventoryKey(Long hotelId, RoomType roomType) {
+}
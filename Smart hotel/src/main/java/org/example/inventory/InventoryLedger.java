@@ -0,0 +1,50 @@
+package org.example.inventory;
+
+import org.example.entity.RoomInventoryDay;
+import org.example.repository.RoomInventoryDayRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Creates the missing {@code room_inventory_days} rows for a stay. Runs in its own transaction
+ * while the caller holds the inventory stripe lock, so the rows are committed and visible before
+ * any other booking for the same hotel and room type tries its conditional update.
+ */
+@Component
+public class InventoryLedger {
+
+    @Autowired
+    private RoomInventoryDayRepository roomInventoryDayRepository;
+
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void seed(InventoryKey key, LocalDate checkin, LocalDate checkout, DailyInventory inventory) {
+        Set<LocalDate> existing = new HashSet<>(roomInventoryDayRepository.findStayDates(
+                key.hotelId(), key.roomType(), checkin, checkout));
+        if (existing.size() == ChronoUnit.DAYS.between(checkin, checkout)) {
+            return;
+        }
+
+        List<RoomInventoryDay> missing = new ArrayList<>();
+        for (LocalDate day = checkin; day.isBefore(checkout); day = day.plusDays(1)) {
+            if (!existing.contains(day)) {
+                missing.add(RoomInventoryDay.builder()
+                        .hotelId(key.hotelId())
+                        .roomType(key.roomType())
+                        .stayDate(day)
+                        .capacity(inventory.getCapacity())
+                        .reserved(inventory.reservedOn(day))
+                        .build());
+            }
+        }
+        roomInventoryDayRepository.saveAll(missing);
+    }
+}
@@ -0,0 +1,111 @@
+package org.example.logging;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * One structured line per request, written by a background thread. Request threads only offer
+ * the entry to a bounded queue; when the writer falls behind, entries are dropped and counted
+ * instead of making requests wait on the log. Lines go to the "access" logger in logfmt.
+ */
+@Component
+public class AccessLog {
+
+    private static final Logger accessLogger = LoggerFactory.getLogger("access");
+
+    private static final Logger logger = LoggerFactory.getLogger(AccessLog.class);
+
+    private static final int DRAIN_BATCH = 256;
+
+    private final BlockingQueue<Entry> queue;
+
+    private final Thread writer;
+
+    private final AtomicLong written = new AtomicLong();
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean running = true;
+
+    public AccessLog(@Value("${spring.app.accessLogQueueSize:8192}") int queueSize) {
+        this.queue = new ArrayBlockingQueue<>(queueSize);
+        this.writer = new Thread(this::drain, "access-log");
+        this.writer.setDaemon(true);
+        this.writer.start();
+    }
+
+    public void record(Entry entry) {
+        if (!queue.offer(entry)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("written", written.get());
+        stats.put("dropped", dropped.get());
+        stats.put("queued", queue.size());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        writer.interrupt();
+        writer.join(TimeUnit.SECONDS.toMillis(5));
+    }
+
+    private void drain() {
+        List<Entry> batch = new ArrayList<>(DRAIN_BATCH);
+        StringBuilder line = new StringBuilder(256);
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry first = queue.poll(1, TimeUnit.SECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                queue.drainTo(batch, DRAIN_BATCH - 1);
+            } catch (InterruptedException e) {
+                // Shutting down; write whatever is left
+                queue.drainTo(batch);
+                running = false;
+            }
+            for (Entry entry : batch) {
+                line.setLength(0);
+                try {
+                    accessLogger.info(entry.format(line));
+                    written.incrementAndGet();
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to write access log line: {}", e.getMessage());
+                }
+            }
+            batch.clear();
+        }
+    }
+
+    public record Entry(String method, String route, int status, long latencyMicros, long bytes, String user) {
+
+        String format(StringBuilder line) {
+            line.append("method=").append(method)
+                    .append(" route=").append(route)
+                    .append(" status=").append(status)
+                    .append(" latency_us=").append(latencyMicros)
+                    .append(" bytes=").append(bytes)
+                    .append(" user=").append(user != null ? user : "-");
+            return line.toString();
+        }
+    }
+}
@@ -0,0 +1,143 @@
+package org.example.logging;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletOutputStream;
+import jakarta.servlet.WriteListener;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.servlet.http.HttpServletResponseWrapper;
+import org.example.metrics.MetricsRegistry;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.Charset;
+
+/**
+ * Times every request, records it in the {@link MetricsRegistry} and hands one
+ * {@link AccessLog.Entry} to the access log. Sits in the security chain right after the security
+ * context is loaded, so the user is still known when the request completes. The route is the
+ * matched handler pattern, not the raw path, so ids do not end up in the route field. Streamed
+ * responses are logged when their handler returns.
+ */
+public class AccessLogFilter extends OncePerRequestFilter {
+
+    private final AccessLog accessLog;
+
+    private final MetricsRegistry metricsRegistry;
+
+    public AccessLogFilter(AccessLog accessLog, MetricsRegistry metricsRegistry) {
+        this.accessLog = accessLog;
+        this.metricsRegistry = metricsRegistry;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        boolean counting = metricsRegistry.startRequest();
+        long start = System.nanoTime();
+        CountingResponse countingResponse = new CountingResponse(response);
+        int status = 500;
+        try {
+            filterChain.doFilter(request, countingResponse);
+            countingResponse.flushWriter();
+            status = countingResponse.getStatus();
+        } finally {
+            long micros = (System.nanoTime() - start) / 1000;
+            Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+            String route = pattern != null ? pattern.toString() : null;
+            metricsRegistry.endRequest(counting, request.getMethod(), route, status, micros);
+            accessLog.record(new AccessLog.Entry(request.getMethod(),
+                    route != null ? route : request.getServletPath(),
+                    status, micros, countingResponse.bytes, user()));
+        }
+    }
+
+    private static String user() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !authentication.isAuthenticated()
+                || authentication instanceof AnonymousAuthenticationToken) {
+            return null;
+        }
+        return authentication.getName();
+    }
+
+    // Counts body bytes as they pass through instead of buffering the response
+    private static class CountingResponse extends HttpServletResponseWrapper {
+        private long bytes;
+        private ServletOutputStream outputStream;
+        private PrintWriter writer;
+
+        CountingResponse(HttpServletResponse response) {
+            super(response);
+        }
+
+        @Override
+        public ServletOutputStream getOutputStream() throws IOException {
+            if (outputStream == null) {
+                ServletOutputStream target = super.getOutputStream();
+                outputStream = new ServletOutputStream() {
+                    @Override
+                    public void write(int b) throws IOException {
+                        target.write(b);
+                        bytes++;
+                    }
+
+                    @Override
+                    public void write(byte[] b, int off, int len) throws IOException {
+                        target.write(b, off, len);
+                        bytes += len;
+                    }
+
+                    @Override
+                    public void flush() throws IOException {
+                        target.flush();
+                    }
+
+                    @Override
+                    public void close() throws IOException {
+                        target.close();
+                    }
+
+                    @Override
+                    public boolean isReady() {
+                        return target.isReady();
+                    }
+
+                    @Override
+                    public void setWriteListener(WriteListener listener) {
+                        target.setWriteListener(listener);
+                    }
+                };
+            }
+            return outputStream;
+        }
+
+        @Override
+        public PrintWriter getWriter() throws IOException {
+            if (writer == null) {
+                writer = new PrintWriter(new OutputStreamWriter(getOutputStream(), Charset.forName(getCharacterEncoding())));
+            }
+            return writer;
+        }
+
+        @Override
+        public void flushBuffer() throws IOException {
+            flushWriter();
+            super.flushBuffer();
+        }
+
+        // The container only flushes its own writer, so text written through ours is pushed out here
+        void flushWriter() {
+            if (writer != null) {
+                writer.flush();
+            }
+        }
+    }
+}
@@ -0,0 +1,95 @@
+package org.example.metrics;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-process latency, error and SQL statement figures per route and per service method, kept
+ * since start-up. Routes are keyed by method and matched handler pattern so their number stays
+ * bounded; requests that matched no handler share one entry.
+ */
+@Component
+public class MetricsRegistry implements HibernatePropertiesCustomizer {
+
+    private static final String UNMATCHED = "UNMATCHED";
+
+    private final Map<String, Operation> routes = new ConcurrentHashMap<>();
+
+    private final Map<String, Operation> services = new ConcurrentHashMap<>();
+
+    private final Instant since = Instant.now();
+
+    @Override
+    public void customize(Map<String, Object> hibernateProperties) {
+        hibernateProperties.put(AvailableSettings.STATEMENT_INSPECTOR, new StatementCounter());
+    }
+
+    // Starts counting statements on the request thread; returns false if a count is already open
+    public boolean startRequest() {
+        return StatementCounter.open();
+    }
+
+    public void endRequest(boolean started, String method, String route, int status, long micros) {
+        long statements = StatementCounter.current();
+        if (started) {
+            StatementCounter.close();
+        }
+        String key = route != null ? method + " " + route : UNMATCHED;
+        routes.computeIfAbsent(key, k -> new Operation()).record(micros, statements, status >= 500, status >= 400 && status < 500);
+    }
+
+    Operation service(String name) {
+        return services.computeIfAbsent(name, k -> new Operation());
+    }
+
+    public Map<String, Object> snapshot() {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("since", since);
+        snapshot.put("routes", snapshot(routes));
+        snapshot.put("services", snapshot(services));
+        return snapshot;
+    }
+
+    private static Map<String, Object> snapshot(Map<String, Operation> operations) {
+        Map<String, Object> sorted = new TreeMap<>();
+        operations.forEach((name, operation) -> sorted.put(name, operation.snapshot()));
+        return sorted;
+    }
+
+    static class Operation {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final LongAdder errors = new LongAdder();
+        private final LongAdder clientErrors = new LongAdder();
+        private final LongAdder statements = new LongAdder();
+
+        void record(long micros, long statementCount, boolean error, boolean clientError) {
+            latency.record(micros);
+            statements.add(statementCount);
+            if (error) {
+                errors.increment();
+            }
+            if (clientError) {
+                clientErrors.increment();
+            }
+        }
+
+        Map<String, Object> snapshot() {
+            Map<String, Object> snapshot = latency.snapshot();
+            long count = (Long) snapshot.get("count");
+            long statementTotal = statements.sum();
+            snapshot.put("errors", errors.sum());
+            snapshot.put("clientErrors", clientErrors.sum());
+            snapshot.put("statements", statementTotal);
+            snapshot.put("statementsPerCall", count > 0 ? Math.round(statementTotal * 100.0 / count) / 100.0 : 0.0);
+            return snapshot;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.metrics;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// Times every public service method; nested calls are counted in both the caller and the callee
+@Aspect
+@Component
+public class ServiceMetricsAspect {
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    private final Map<Method, MetricsRegistry.Operation> operations = new ConcurrentHashMap<>();
+
+    @Around("within(org.example.service..*) && execution(public * *(..))")
+    public Object measure(ProceedingJoinPoint joinPoint) throws Throwable {
+        Method method = ((MethodSignature) joinPoint.getSignature()).getMethod();
+        MetricsRegistry.Operation operation = operations.get(method);
+        if (operation == null) {
+            operation = operations.computeIfAbsent(method, m ->
+                    metricsRegistry.service(m.getDeclaringClass().getSimpleName() + "." + m.getName()));
+        }
+
+        boolean opened = StatementCounter.open();
+        long statementsBefore = StatementCounter.current();
+        long start = System.nanoTime();
+        boolean failed = false;
+        try {
+            return joinPoint.proceed();
+        } catch (Throwable e) {
+            failed = true;
+            throw e;
+        } finally {
+            operation.record((System.nanoTime() - start) / 1000, StatementCounter.current() - statementsBefore,
+                    failed, false);
+            if (opened) {
+                StatementCounter.close();
+            }
+        }
+    }
+}
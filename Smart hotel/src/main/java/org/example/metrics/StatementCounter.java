@@ -0,0 +1,40 @@
+package org.example.metrics;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread while a measurement is
+ * open. Installed as the session factory's statement inspector; statements issued through
+ * JdbcTemplate or on other threads are not seen.
+ */
+public class StatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<long[]> COUNT = new ThreadLocal<>();
+
+    @Override
+    public String inspect(String sql) {
+        long[] count = COUNT.get();
+        if (count != null) {
+            count[0]++;
+        }
+        return sql;
+    }
+
+    // Opens a measurement on this thread, or joins the one already open
+    static boolean open() {
+        if (COUNT.get() != null) {
+            return false;
+        }
+        COUNT.set(new long[1]);
+        return true;
+    }
+
+    static long current() {
+        long[] count = COUNT.get();
+        return count != null ? count[0] : 0;
+    }
+
+    static void close() {
+        COUNT.remove();
+    }
+}
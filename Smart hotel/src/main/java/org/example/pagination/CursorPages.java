@@ -0,0 +1,42 @@
+package org.example.pagination;
+
+import org.example.dto.Response.CursorPageResponse;
+import org.springframework.data.domain.Limit;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Shared plumbing for keyset paginated lists. Repositories fetch one row more than the page with
+ * a "(created_at, id) below the cursor" condition on an index that ends in (created_at, id), so a
+ * page costs the same however deep it is; the extra row only tells whether another page follows.
+ */
+public final class CursorPages {
+
+    public static final int DEFAULT_PAGE_SIZE = 20;
+    public static final int MAX_PAGE_SIZE = 100;
+
+    private CursorPages() {
+    }
+
+    public static int pageSize(Integer limit) {
+        return limit == null ? DEFAULT_PAGE_SIZE : Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+    }
+
+    // Page size plus the look-ahead row
+    public static Limit fetchLimit(int pageSize) {
+        return Limit.of(pageSize + 1);
+    }
+
+    public static <E, R> CursorPageResponse<R> page(List<E> rows, int pageSize, Function<E, PageCursor> position,
+                                                    Function<E, R> mapper) {
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            nextCursor = position.apply(rows.get(pageSize - 1)).encode();
+        }
+        List<R> items = rows.stream().map(mapper).collect(Collectors.toList());
+        return new CursorPageResponse<>(items, nextCursor);
+    }
+}
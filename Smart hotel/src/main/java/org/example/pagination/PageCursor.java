@@ -0,0 +1,51 @@
+package org.example.pagination;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Base64;
+
+// Opaque keyset position for newest first lists: the (createdAt, id) of the last row returned
+@Getter
+@AllArgsConstructor
+public class PageCursor {
+
+    // Sorts after every stored row, so the first page uses the same query and index as the others
+    public static final PageCursor START = new PageCursor(LocalDateTime.of(9999, 1, 1, 0, 0), Long.MAX_VALUE);
+
+    private final LocalDateTime createdAt;
+    private final long id;
+
+    public Instant getCreatedAtInstant() {
+        return createdAt.toInstant(ZoneOffset.UTC);
+    }
+
+    public String encode() {
+        String raw = createdAt + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor of(Instant createdAt, long id) {
+        return new PageCursor(LocalDateTime.ofInstant(createdAt, ZoneOffset.UTC), id);
+    }
+
+    public static PageCursor decode(String cursor) {
+        if (cursor == null || cursor.isEmpty()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Malformed cursor");
+            }
+            return new PageCursor(LocalDateTime.parse(parts[0]), Long.parseLong(parts[1]));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
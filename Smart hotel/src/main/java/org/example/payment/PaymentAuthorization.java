@@ -0,0 +1,12 @@
+package org.example.payment;
+
+public record PaymentAuthorization(boolean approved, String reference, String declineReason) {
+
+    public static PaymentAuthorization approved(String reference) {
+        return new PaymentAuthorization(true, reference, null);
+    }
+
+    public static PaymentAuthorization declined(String reference, String reason) {
+        return new PaymentAuthorization(false, reference, reason);
+    }
+}
@@ -0,0 +1,14 @@
+package org.example.payment;
+
+import org.example.enums.PaymentMethod;
+
+/**
+ * Authorizes a charge with the payment provider. Called from the payment workers, never from a
+ * request thread or inside a transaction, so an implementation may block on the network.
+ * {@code paymentId} is stable across retries and should be passed on as the provider's
+ * idempotency reference.
+ */
+public interface PaymentGateway {
+
+    PaymentAuthorization authorize(Long paymentId, Double amount, PaymentMethod method, String details);
+}
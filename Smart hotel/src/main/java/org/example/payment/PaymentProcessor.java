@@ -0,0 +1,250 @@
+package org.example.payment;
+
+import jakarta.annotation.PreDestroy;
+import org.example.analytics.HotelDailyRollup;
+import org.example.dashboard.DashboardSnapshot;
+import org.example.entity.Payment;
+import org.example.enums.BookingStatus;
+import org.example.enums.PaymentStatus;
+import org.example.exceptions.PaymentBacklogException;
+import org.example.repository.BookingRepository;
+import org.example.repository.PaymentRepository;
+import org.example.service.BookingExpiryService;
+import org.example.service.LoyaltyService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Authorizes accepted payments off the request thread. A payment is queued only after the
+ * transaction that accepted it commits, the gateway is called outside any transaction, and the
+ * outcome is applied in a short transaction of its own. The number of payments in flight is
+ * capped by a semaphore taken while accepting, so a slow gateway turns into fast 503s instead
+ * of an unbounded backlog. Workers are virtual threads when the JVM has them. Only an explicit
+ * decline fails a payment; when the gateway cannot be reached the payment stays PENDING and is
+ * asked about again, under the same id, by the periodic retry.
+ */
+@Component
+public class PaymentProcessor {
+
+    static final int POINTS_PER_PAYMENT = 50;
+
+    private static final Logger logger = LoggerFactory.getLogger(PaymentProcessor.class);
+
+    @Autowired
+    private PaymentGateway paymentGateway;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private LoyaltyService loyaltyService;
+
+    @Autowired
+    private BookingExpiryService bookingExpiryService;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private DashboardSnapshot dashboardSnapshot;
+
+    @Autowired
+    private HotelDailyRollup hotelDailyRollup;
+
+    private final Semaphore inFlight;
+
+    private final ExecutorService executor;
+
+    // Payments holding a slot on this node, so a retry never queues one that is already on its way
+    private final Set<Long> queued = ConcurrentHashMap.newKeySet();
+
+    @Value("${spring.app.paymentRetryIntervalMs:60000}")
+    private long retryIntervalMs;
+
+    public PaymentProcessor(@Value("${spring.app.paymentMaxInFlight:200}") int maxInFlight,
+                            @Value("${spring.app.paymentWorkers:16}") int workers,
+                            @Value("${spring.app.paymentVirtualThreads:true}") boolean virtualThreads) {
+        this.inFlight = new Semaphore(maxInFlight);
+        this.executor = createExecutor(workers, virtualThreads);
+    }
+
+    /**
+     * Reserves a slot for the payment and queues it once the caller's transaction commits.
+     * Must be called inside that transaction; a rollback gives the slot back.
+     */
+    public void submitAfterCommit(Long paymentId) {
+        if (!inFlight.tryAcquire()) {
+            throw new PaymentBacklogException("Too many payments in progress, please retry shortly");
+        }
+        queued.add(paymentId);
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    try {
+                        executor.execute(() -> process(paymentId));
+                    } catch (RejectedExecutionException e) {
+                        // Shutting down; the payment stays PENDING and resumes on the next start
+                        finish(paymentId);
+                    }
+                } else {
+                    finish(paymentId);
+                }
+            }
+        });
+    }
+
+    // Payments accepted before a restart are still PENDING; whatever does not fit in the free slots waits for the retry
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        int resumed = resubmit(LocalDateTime.now());
+        if (resumed > 0) {
+            logger.info("Resumed {} pending payments", resumed);
+        }
+    }
+
+    // Payments whose gateway call failed are still PENDING; the call is keyed by id, so asking again is safe
+    @Scheduled(fixedDelayString = "${spring.app.paymentRetryIntervalMs:60000}",
+            initialDelayString = "${spring.app.paymentRetryIntervalMs:60000}")
+    public void retryPending() {
+        int retried = resubmit(LocalDateTime.now().minus(Duration.ofMillis(retryIntervalMs)));
+        if (retried > 0) {
+            logger.info("Retrying {} pending payments", retried);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(30, TimeUnit.SECONDS)) {
+            logger.warn("Payment workers did not finish in time, remaining payments resume on next start");
+            executor.shutdownNow();
+        }
+    }
+
+    private void process(Long paymentId) {
+        try {
+            Payment payment = paymentRepository.findById(paymentId).orElse(null);
+            if (payment == null || payment.getStatus() != PaymentStatus.PENDING) {
+                return;
+            }
+
+            PaymentAuthorization authorization;
+            try {
+                authorization = paymentGateway.authorize(paymentId, payment.getAmount(),
+                        payment.getMethod(), payment.getDetails());
+            } catch (RuntimeException e) {
+                // No answer is not a decline: the charge may have gone through, so only a retry under the same id can tell
+                logger.warn("Gateway failed for payment {}, leaving it pending for retry: {}", paymentId, e.getMessage());
+                return;
+            }
+
+            transactionTemplate.executeWithoutResult(status -> settle(payment, authorization));
+        } catch (RuntimeException e) {
+            // Left PENDING, so the retry picks it up again
+            logger.error("Failed to settle payment {}: {}", paymentId, e.getMessage(), e);
+        } finally {
+            finish(paymentId);
+        }
+    }
+
+    // Queues pending payments accepted before the cutoff that are not queued here yet, while slots are free
+    private int resubmit(LocalDateTime cutoff) {
+        int submitted = 0;
+        for (Long paymentId : paymentRepository.findIdsByStatusCreatedBefore(PaymentStatus.PENDING, cutoff)) {
+            if (queued.contains(paymentId)) {
+                continue;
+            }
+            if (!inFlight.tryAcquire()) {
+                break;
+            }
+            if (!queued.add(paymentId)) {
+                inFlight.release();
+                continue;
+            }
+            try {
+                executor.execute(() -> process(paymentId));
+            } catch (RejectedExecutionException e) {
+                finish(paymentId);
+                break;
+            }
+            submitted++;
+        }
+        return submitted;
+    }
+
+    private void finish(Long paymentId) {
+        queued.remove(paymentId);
+        inFlight.release();
+    }
+
+    private void settle(Payment payment, PaymentAuthorization authorization) {
+        PaymentStatus to = authorization.approved() ? PaymentStatus.AUTHORIZED : PaymentStatus.DECLINED;
+        if (paymentRepository.settle(payment.getId(), to, authorization.reference(),
+                authorization.declineReason(), LocalDateTime.now()) == 0) {
+            return;
+        }
+
+        Long bookingId = payment.getBooking().getId();
+        if (authorization.approved()) {
+            if (bookingRepository.updateStatus(bookingId, BookingStatus.PAYMENT_PROCESSING, BookingStatus.PAID) > 0) {
+                Object[] stay = bookingRepository.findStayById(bookingId).get(0);
+                double total = stay[3] != null ? ((Number) stay[3]).doubleValue() : 0.0;
+                hotelDailyRollup.recordPaid(bookingId, (Long) stay[0], (LocalDate) stay[1], (LocalDate) stay[2], total);
+                dashboardSnapshot.revenueAdded(total);
+            }
+            loyaltyService.awardPoints(payment.getUserEmail(), POINTS_PER_PAYMENT, "Payment for booking #" + bookingId);
+            return;
+        }
+
+        // Declined: the hold goes back to awaiting payment with a full deadline and redeemed points are returned
+        bookingRepository.updateStatusAndHold(bookingId, BookingStatus.PAYMENT_PROCESSING, BookingStatus.PENDING_PAYMENT,
+                bookingExpiryService.holdDeadline(LocalDateTime.now()));
+        if (payment.getLoyaltyPointsUsed() != null && payment.getLoyaltyPointsUsed() > 0) {
+            loyaltyService.restorePoints(payment.getUserEmail(), payment.getLoyaltyPointsUsed(),
+                    "Declined payment for booking #" + bookingId);
+        }
+        logger.info("Payment {} declined: {}", payment.getId(), authorization.declineReason());
+    }
+
+    // Executors.newVirtualThreadPerTaskExecutor only exists from Java 21, the build targets 17
+    private static ExecutorService createExecutor(int workers, boolean virtualThreads) {
+        if (virtualThreads) {
+            try {
+                return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                logger.info("Virtual threads unavailable on this JVM, using {} payment workers", workers);
+            }
+        }
+        AtomicInteger counter = new AtomicInteger();
+        return Executors.newFixedThreadPool(workers, runnable -> {
+            Thread thread = new Thread(runnable, "payment-worker-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+}
@@ -0,0 +1,47 @@
+package org.example.payment;
+
+import org.example.enums.PaymentMethod;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local stand-in for a real provider. Sleeps for the configured latency plus jitter and declines
+ * the configured share of charges, which is enough to load-test the payment pipeline.
+ */
+@Component
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    @Value("${spring.app.paymentGatewayLatencyMs:200}")
+    private long latencyMs;
+
+    @Value("${spring.app.paymentGatewayJitterMs:100}")
+    private long jitterMs;
+
+    @Value("${spring.app.paymentGatewayDeclineRate:0.0}")
+    private double declineRate;
+
+    @Override
+    public PaymentAuthorization authorize(Long paymentId, Double amount, PaymentMethod method, String details) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        long delay = latencyMs + (jitterMs > 0 ? random.nextLong(jitterMs + 1) : 0);
+        if (delay > 0) {
+            try {
+                Thread.sleep(delay);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while authorizing payment " + paymentId, e);
+            }
+        }
+
+        String reference = "SIM-" + paymentId;
+        if (amount == null || amount < 0) {
+            return PaymentAuthorization.declined(reference, "Invalid amount");
+        }
+        if (random.nextDouble() < declineRate) {
+            return PaymentAuthorization.declined(reference, "Declined by issuer");
+        }
+        return PaymentAuthorization.approved(reference);
+    }
+}
@@ -0,0 +1,15 @@
+package org.example.pricing;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+
+@Getter
+@AllArgsConstructor
+public class PriceQuote {
+    private final List<Double> nightlyRates;
+    private final double pricePerNight; // average over the stay
+    private final double total;
+    private final long rateVersion;
+}
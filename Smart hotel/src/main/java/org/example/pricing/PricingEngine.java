@@ -0,0 +1,147 @@
+package org.example.pricing;
+
+import org.example.enums.RoomType;
+import org.example.exceptions.ResourceNotFoundException;
+import org.example.repository.RoomRepository;
+import org.example.repository.SeasonalRateRepository;
+import org.example.transaction.AfterCommit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Server side prices for stays. Every hotel's base room prices and upcoming seasonal rates are
+ * held as an immutable {@link RateTable}, so a quote is a loop over the nights with no database
+ * access. Tables are built for all hotels at startup and rebuilt when a manager changes prices.
+ */
+@Component
+public class PricingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PricingEngine.class);
+
+    private static final int MAX_QUOTE_NIGHTS = 365;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private SeasonalRateRepository seasonalRateRepository;
+
+    private final Map<Long, RateTable> tables = new ConcurrentHashMap<>();
+
+    private final AtomicLong versions = new AtomicLong();
+
+    public PriceQuote quote(Long hotelId, RoomType roomType, LocalDate checkin, LocalDate checkout) {
+        if (checkin == null || checkout == null || !checkout.isAfter(checkin)) {
+            throw new IllegalArgumentException("Check-out date must be after check-in date");
+        }
+        long nights = ChronoUnit.DAYS.between(checkin, checkout);
+        if (nights > MAX_QUOTE_NIGHTS) {
+            throw new IllegalArgumentException("Stays are limited to " + MAX_QUOTE_NIGHTS + " nights");
+        }
+
+        RateTable table = table(hotelId);
+        if (table == null || !table.offers(roomType)) {
+            throw new ResourceNotFoundException("No " + roomType.name().toLowerCase() + " rooms at hotel " + hotelId);
+        }
+
+        List<Double> nightlyRates = new ArrayList<>((int) nights);
+        double total = 0;
+        for (LocalDate night = checkin; night.isBefore(checkout); night = night.plusDays(1)) {
+            double rate = table.nightlyRate(roomType, night);
+            nightlyRates.add(rate);
+            total += rate;
+        }
+        return new PriceQuote(nightlyRates, roundToCents(total / nights), roundToCents(total), table.getVersion());
+    }
+
+    // Rebuilds a hotel's table once the caller's transaction has committed its price changes
+    public void refresh(Long hotelId) {
+        AfterCommit.run(() -> reload(hotelId));
+    }
+
+    public void evict(Long hotelId) {
+        tables.remove(hotelId);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void warmUp() {
+        Map<Long, Map<RoomType, Double>> baseRates = new HashMap<>();
+        for (Object[] row : roomRepository.findAllPrices()) {
+            if (row[1] != null) {
+                baseRates.computeIfAbsent((Long) row[0], id -> new EnumMap<>(RoomType.class))
+                        .putIfAbsent((RoomType) row[1], (Double) row[2]);
+            }
+        }
+        Map<Long, Map<RoomType, TreeMap<LocalDate, RateTable.Season>>> seasons = new HashMap<>();
+        for (Object[] row : seasonalRateRepository.findAllRates(LocalDate.now())) {
+            addSeason(seasons.computeIfAbsent((Long) row[0], id -> new EnumMap<>(RoomType.class)), row);
+        }
+
+        baseRates.forEach((hotelId, rates) -> tables.putIfAbsent(hotelId,
+                new RateTable(versions.incrementAndGet(), rates, seasons.getOrDefault(hotelId, Map.of()))));
+        logger.info("Pricing engine loaded rate tables for {} hotels", baseRates.size());
+    }
+
+    private RateTable table(Long hotelId) {
+        RateTable table = tables.get(hotelId);
+        if (table == null) {
+            table = build(hotelId);
+            if (table != null) {
+                tables.putIfAbsent(hotelId, table);
+            }
+        }
+        return table;
+    }
+
+    private void reload(Long hotelId) {
+        RateTable table = build(hotelId);
+        if (table != null) {
+            tables.put(hotelId, table);
+        } else {
+            tables.remove(hotelId);
+        }
+    }
+
+    private RateTable build(Long hotelId) {
+        Map<RoomType, Double> baseRates = new EnumMap<>(RoomType.class);
+        for (Object[] row : roomRepository.findPricesByHotelIds(List.of(hotelId))) {
+            if (row[1] != null) {
+                baseRates.putIfAbsent((RoomType) row[1], (Double) row[2]);
+            }
+        }
+        if (baseRates.isEmpty()) {
+            return null;
+        }
+        Map<RoomType, TreeMap<LocalDate, RateTable.Season>> seasons = new EnumMap<>(RoomType.class);
+        for (Object[] row : seasonalRateRepository.findRatesByHotelId(hotelId, LocalDate.now())) {
+            addSeason(seasons, row);
+        }
+        return new RateTable(versions.incrementAndGet(), baseRates, seasons);
+    }
+
+    private static void addSeason(Map<RoomType, TreeMap<LocalDate, RateTable.Season>> seasons, Object[] row) {
+        seasons.computeIfAbsent((RoomType) row[1], type -> new TreeMap<>())
+                .put((LocalDate) row[2], new RateTable.Season((LocalDate) row[3], (Double) row[4]));
+    }
+
+    private static double roundToCents(double amount) {
+        return Math.round(amount * 100) / 100.0;
+    }
+}
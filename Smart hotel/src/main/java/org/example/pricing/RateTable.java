@@ -0,0 +1,47 @@
+package org.example.pricing;
+
+import org.example.enums.RoomType;
+
+import java.time.LocalDate;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Immutable rates of one hotel: the base price per room type plus seasonal overrides keyed by
+ * their first night. Rebuilt and swapped as a whole, the version tells quotes which build they
+ * were priced from.
+ */
+public class RateTable {
+    private final long version;
+    private final Map<RoomType, Double> baseRates;
+    private final Map<RoomType, TreeMap<LocalDate, Season>> seasons;
+
+    RateTable(long version, Map<RoomType, Double> baseRates, Map<RoomType, TreeMap<LocalDate, Season>> seasons) {
+        this.version = version;
+        this.baseRates = baseRates.isEmpty() ? Map.of() : new EnumMap<>(baseRates);
+        this.seasons = seasons.isEmpty() ? Map.of() : new EnumMap<>(seasons);
+    }
+
+    public long getVersion() {
+        return version;
+    }
+
+    public boolean offers(RoomType roomType) {
+        return baseRates.containsKey(roomType);
+    }
+
+    public double nightlyRate(RoomType roomType, LocalDate night) {
+        TreeMap<LocalDate, Season> typeSeasons = seasons.get(roomType);
+        if (typeSeasons != null) {
+            Map.Entry<LocalDate, Season> season = typeSeasons.floorEntry(night);
+            if (season != null && night.isBefore(season.getValue().end())) {
+                return season.getValue().price();
+            }
+        }
+        return baseRates.get(roomType);
+    }
+
+    record Season(LocalDate end, double price) {
+    }
+}
@@ -0,0 +1,113 @@
+package org.example.ratelimit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per client token buckets, one set per route group. Each bucket is a single AtomicLong holding
+ * the time at which it will be full again (the generic cell rate form of a token bucket): taking
+ * a token is one compare-and-set, and a bucket that has been idle long enough to refill is simply
+ * dropped by the sweep. A group allows its per-minute limit as a burst and refills it evenly over
+ * the minute; a limit of 0 turns the group off.
+ */
+@Component
+public class RateLimiter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RateLimiter.class);
+
+    private static final long WINDOW_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final Map<RouteGroup, Limit> limits = new EnumMap<>(RouteGroup.class);
+
+    public RateLimiter(@Value("${spring.app.rateLimitAuthPerMinute:30}") int auth,
+                       @Value("${spring.app.rateLimitSearchPerMinute:600}") int search,
+                       @Value("${spring.app.rateLimitUserPerMinute:300}") int user,
+                       @Value("${spring.app.rateLimitManagerPerMinute:300}") int manager,
+                       @Value("${spring.app.rateLimitAdminPerMinute:300}") int admin) {
+        limits.put(RouteGroup.AUTH, new Limit(auth));
+        limits.put(RouteGroup.SEARCH, new Limit(search));
+        limits.put(RouteGroup.USER, new Limit(user));
+        limits.put(RouteGroup.MANAGER, new Limit(manager));
+        limits.put(RouteGroup.ADMIN, new Limit(admin));
+    }
+
+    /**
+     * Takes a token for the client from the group's bucket.
+     *
+     * @return 0 when the request may proceed, otherwise the nanoseconds until a token is available
+     */
+    public long acquire(RouteGroup group, String client) {
+        Limit limit = limits.get(group);
+        if (limit.perMinute <= 0) {
+            return 0;
+        }
+        AtomicLong bucket = limit.buckets.get(client);
+        if (bucket == null) {
+            bucket = limit.buckets.computeIfAbsent(client, key -> new AtomicLong(System.nanoTime()));
+        }
+        long now = System.nanoTime();
+        while (true) {
+            long fullAt = bucket.get();
+            long start = fullAt - now < 0 ? now : fullAt;
+            long next = start + limit.interval;
+            // Empty once the bucket is a whole window away from being full
+            if (next - now > WINDOW_NANOS) {
+                limit.rejected.incrementAndGet();
+                return next - now - WINDOW_NANOS;
+            }
+            if (bucket.compareAndSet(fullAt, next)) {
+                return 0;
+            }
+        }
+    }
+
+    // Buckets that have refilled completely hold no state worth keeping
+    @Scheduled(fixedDelayString = "${spring.app.rateLimitSweepIntervalMs:60000}",
+            initialDelayString = "${spring.app.rateLimitSweepIntervalMs:60000}")
+    public void evictIdle() {
+        long now = System.nanoTime();
+        int evicted = 0;
+        for (Limit limit : limits.values()) {
+            int before = limit.buckets.size();
+            limit.buckets.values().removeIf(bucket -> bucket.get() - now <= 0);
+            evicted += before - limit.buckets.size();
+        }
+        if (evicted > 0) {
+            logger.debug("Evicted {} idle rate limit buckets", evicted);
+        }
+    }
+
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        limits.forEach((group, limit) -> {
+            Map<String, Object> groupStats = new LinkedHashMap<>();
+            groupStats.put("perMinute", limit.perMinute);
+            groupStats.put("clients", limit.buckets.size());
+            groupStats.put("rejected", limit.rejected.get());
+            stats.put(group.name().toLowerCase(), groupStats);
+        });
+        return stats;
+    }
+
+    private static class Limit {
+        private final int perMinute;
+        private final long interval;
+        private final Map<String, AtomicLong> buckets = new ConcurrentHashMap<>();
+        private final AtomicLong rejected = new AtomicLong();
+
+        Limit(int perMinute) {
+            this.perMinute = perMinute;
+            this.interval = perMinute > 0 ? WINDOW_NANOS / perMinute : 0;
+        }
+    }
+}
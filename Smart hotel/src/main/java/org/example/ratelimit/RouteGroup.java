@@ -0,0 +1,28 @@
+package org.example.ratelimit;
+
+// Routes that share a limit, matched by path prefix
+public enum RouteGroup {
+    AUTH("/api/auth/", "/auth/"),
+    SEARCH("/api/hotels", "/hotels"),
+    USER("/api/user/", "/api/bookings"),
+    MANAGER("/api/manager/"),
+    ADMIN("/api/admin/");
+
+    private final String[] prefixes;
+
+    RouteGroup(String... prefixes) {
+        this.prefixes = prefixes;
+    }
+
+    // Null for routes that are not limited
+    public static RouteGroup of(String path) {
+        for (RouteGroup group : values()) {
+            for (String prefix : group.prefixes) {
+                if (path.startsWith(prefix)) {
+                    return group;
+                }
+            }
+        }
+        return null;
+    }
+}
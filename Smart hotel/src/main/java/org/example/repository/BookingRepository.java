@@ -1,22 +1,101 @@
 package org.example.repository;
 
 import org.example.entity.Booking;
+import org.example.enums.BookingStatus;
+import org.example.enums.RoomType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    List<Booking> findByUserEmail(String userEmail);
+    // Newest first pages below the cursor; the hotel is fetched since the responses carry its name
+    @Query("SELECT b FROM Booking b JOIN FETCH b.hotel WHERE b.userEmail = :userEmail AND b.status <> :status " +
+            "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<Booking> findUserPage(@Param("userEmail") String userEmail,
+                               @Param("status") BookingStatus status,
+                               @Param("createdAt") LocalDateTime createdAt,
+                               @Param("id") Long id,
+                               Limit limit);
 
-    @Query("SELECT b FROM Booking b WHERE b.hotel.managerEmail = :managerEmail")
-    List<Booking> findByManagerEmail(String managerEmail);
+    @Query("SELECT b FROM Booking b JOIN FETCH b.hotel WHERE b.managerEmail = :managerEmail AND b.status <> :status " +
+            "AND (b.createdAt < :createdAt OR (b.createdAt = :createdAt AND b.id < :id)) " +
+            "ORDER BY b.createdAt DESC, b.id DESC")
+    List<Booking> findManagerPage(@Param("managerEmail") String managerEmail,
+                                  @Param("status") BookingStatus status,
+                                  @Param("createdAt") LocalDateTime createdAt,
+                                  @Param("id") Long id,
+                                  Limit limit);
 
-    @Query("SELECT COUNT(b) FROM Booking b")
-    long countAllBookings();
+    // Bookings made before the manager email was copied onto them
+    @Modifying
+    @Query("UPDATE Booking b SET b.managerEmail = (SELECT h.managerEmail FROM Hotel h WHERE h = b.hotel) " +
+            "WHERE b.managerEmail IS NULL")
+    int backfillManagerEmails();
 
-    @Query("SELECT SUM(b.total) FROM Booking b WHERE b.status = 'PAID'")
-    Double sumTotalRevenue();
-}
\ No newline at end of file
+    @Query("SELECT COALESCE(MAX(b.id), 0) FROM Booking b")
+    long findMaxId();
+
+    @Query("SELECT b.hotel.id, b.checkin, b.checkout, b.total FROM Booking b WHERE b.id = :id")
+    List<Object[]> findStayById(@Param("id") Long id);
+
+    // Paid bookings the daily rollup has not counted yet
+    @Query("SELECT b.id, b.hotel.id, b.checkin, b.checkout, b.total FROM Booking b " +
+            "WHERE b.status = 'PAID' AND b.rolledUpAt IS NULL AND b.id > :afterId ORDER BY b.id")
+    List<Object[]> findPaidStays(@Param("afterId") Long afterId, Limit limit);
+
+    boolean existsByStatusAndRolledUpAtIsNull(BookingStatus status);
+
+    // Claims the booking for the daily rollup; 0 means another transaction already counted it
+    @Modifying
+    @Query("UPDATE Booking b SET b.rolledUpAt = :now WHERE b.id = :id AND b.rolledUpAt IS NULL")
+    int markRolledUp(@Param("id") Long id, @Param("now") LocalDateTime now);
+
+    // Every booking and the revenue of the paid ones in a single pass
+    @Query("SELECT COUNT(b), SUM(CASE WHEN b.status = 'PAID' THEN b.total ELSE 0 END) FROM Booking b")
+    List<Object[]> countBookingsAndRevenue();
+
+    @Query("SELECT b.checkin, b.checkout FROM Booking b WHERE b.hotel.id = :hotelId AND b.roomType = :roomType " +
+            "AND b.checkout > :from AND b.status IN :statuses")
+    List<Object[]> findStaysForInventory(@Param("hotelId") Long hotelId,
+                                         @Param("roomType") RoomType roomType,
+                                         @Param("from") LocalDate from,
+                                         @Param("statuses") Collection<BookingStatus> statuses);
+
+    // Served by idx_bookings_status_hold, earliest deadlines first
+    @Query("SELECT b FROM Booking b WHERE b.status = :status AND b.holdExpiresAt < :now ORDER BY b.holdExpiresAt, b.id")
+    List<Booking> findHoldsExpiredBefore(@Param("status") BookingStatus status,
+                                         @Param("now") LocalDateTime now,
+                                         Limit limit);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.holdExpiresAt = :deadline WHERE b.status = :status AND b.holdExpiresAt IS NULL")
+    int backfillHoldDeadlines(@Param("status") BookingStatus status, @Param("deadline") LocalDateTime deadline);
+
+    @Query("SELECT b.status FROM Booking b WHERE b.id = :id")
+    BookingStatus findStatusById(@Param("id") Long id);
+
+    // Only moves the booking if nobody else changed its status first
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :to WHERE b.id = :id AND b.status = :from")
+    int updateStatus(@Param("id") Long id, @Param("from") BookingStatus from, @Param("to") BookingStatus to);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = :to, b.holdExpiresAt = :holdExpiresAt WHERE b.id = :id AND b.status = :from")
+    int updateStatusAndHold(@Param("id") Long id, @Param("from") BookingStatus from, @Param("to") BookingStatus to,
+                            @Param("holdExpiresAt") LocalDateTime holdExpiresAt);
+
+    @Query("SELECT b.hotel.id, b.roomType, b.checkin, b.checkout FROM Booking b " +
+            "WHERE b.checkout > :from AND b.status IN :statuses")
+    List<Object[]> findAllStaysForInventory(@Param("from") LocalDate from,
+                                            @Param("statuses") Collection<BookingStatus> statuses);
+}
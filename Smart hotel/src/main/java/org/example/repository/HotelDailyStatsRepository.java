@@ -0,0 +1,35 @@
+package org.example.repository;
+
+import org.example.entity.HotelDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface HotelDailyStatsRepository extends JpaRepository<HotelDailyStats, Long> {
+
+    // Adds one sold room to every night of a stay; the rows must exist already
+    @Modifying
+    @Query("UPDATE HotelDailyStats s SET s.roomNights = s.roomNights + 1, s.revenue = s.revenue + :nightly " +
+            "WHERE s.hotelId = :hotelId AND s.stayDate >= :checkin AND s.stayDate < :checkout")
+    int addStay(@Param("hotelId") Long hotelId,
+                @Param("checkin") LocalDate checkin,
+                @Param("checkout") LocalDate checkout,
+                @Param("nightly") double nightly);
+
+    @Query("SELECT s.hotelId, s.stayDate, s.roomNights, s.revenue FROM HotelDailyStats s " +
+            "WHERE s.hotelId IN :hotelIds AND s.stayDate >= :from AND s.stayDate <= :to")
+    List<Object[]> findDays(@Param("hotelIds") Collection<Long> hotelIds,
+                            @Param("from") LocalDate from,
+                            @Param("to") LocalDate to);
+
+    @Modifying
+    @Query("DELETE FROM HotelDailyStats s WHERE s.hotelId = :hotelId")
+    void deleteByHotelId(@Param("hotelId") Long hotelId);
+}
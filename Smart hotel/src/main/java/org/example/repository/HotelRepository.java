@@ -3,11 +3,15 @@ package org.example.repository;
 import org.example.entity.Hotel;
 import org.example.enums.HotelStatus;
 import org.example.enums.RoomType;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,10 +19,66 @@ public interface HotelRepository extends JpaRepository<Hotel, Long> {
     List<Hotel> findByManagerEmail(String managerEmail);
     List<Hotel> findByStatus(HotelStatus status);
     List<Hotel> findByLocationContainingIgnoreCaseAndStatus(String location, HotelStatus status);
+    List<Hotel> findByStatusAndIdGreaterThanOrderByIdAsc(HotelStatus status, Long id, Limit limit);
 
-    @Query("SELECT h FROM Hotel h LEFT JOIN h.rooms r WHERE " +
+    @Query("SELECT h FROM Hotel h WHERE h.createdAt < :createdAt OR (h.createdAt = :createdAt AND h.id < :id) " +
+            "ORDER BY h.createdAt DESC, h.id DESC")
+    List<Hotel> findPage(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id, Limit limit);
+
+    @Query("SELECT h.status, COUNT(h) FROM Hotel h GROUP BY h.status")
+    List<Object[]> countByStatus();
+
+    // EXISTS instead of a join on rooms so a hotel with several rooms is returned once
+    @Query("SELECT h FROM Hotel h WHERE " +
             "(:location IS NULL OR LOWER(h.location) LIKE LOWER(CONCAT('%', :location, '%'))) AND " +
-            "(:roomType IS NULL OR r.type = :roomType) AND " +
-            "h.status = 'APPROVED'")
+            "(:roomType IS NULL OR EXISTS (SELECT r.id FROM Room r WHERE r.hotel = h AND r.type = :roomType)) AND " +
+            "h.status = 'APPROVED' ORDER BY h.id")
     List<Hotel> searchHotels(@Param("location") String location, @Param("roomType") RoomType roomType);
+
+    // One review more: sum, count, the star's bucket and the rounded average move together in one statement
+    @Modifying
+    @Query("UPDATE Hotel h SET h.ratingSum = h.ratingSum + :stars, h.ratingCount = h.ratingCount + 1, " +
+            "h.stars1 = h.stars1 + CASE WHEN :stars = 1 THEN 1 ELSE 0 END, " +
+            "h.stars2 = h.stars2 + CASE WHEN :stars = 2 THEN 1 ELSE 0 END, " +
+            "h.stars3 = h.stars3 + CASE WHEN :stars = 3 THEN 1 ELSE 0 END, " +
+            "h.stars4 = h.stars4 + CASE WHEN :stars = 4 THEN 1 ELSE 0 END, " +
+            "h.stars5 = h.stars5 + CASE WHEN :stars = 5 THEN 1 ELSE 0 END, " +
+            "h.rating = ROUND((h.ratingSum + :stars) * 1.0 / (h.ratingCount + 1), 1) WHERE h.id = :hotelId")
+    int addRating(@Param("hotelId") Long hotelId, @Param("stars") int stars);
+
+    // Only applies while the hotel still has the aggregates the repair was computed against
+    @Modifying
+    @Query("UPDATE Hotel h SET h.ratingSum = :sum, h.ratingCount = :count, h.stars1 = :stars1, h.stars2 = :stars2, " +
+            "h.stars3 = :stars3, h.stars4 = :stars4, h.stars5 = :stars5, h.rating = :rating WHERE h.id = :hotelId " +
+            "AND COALESCE(h.ratingSum, -1) = :expectedSum AND COALESCE(h.ratingCount, -1) = :expectedCount")
+    int setRatings(@Param("hotelId") Long hotelId,
+                   @Param("expectedSum") long expectedSum,
+                   @Param("expectedCount") int expectedCount,
+                   @Param("sum") long sum,
+                   @Param("count") int count,
+                   @Param("stars1") int stars1,
+                   @Param("stars2") int stars2,
+                   @Param("stars3") int stars3,
+                   @Param("stars4") int stars4,
+                   @Param("stars5") int stars5,
+                   @Param("rating") double rating);
+
+    @Query("SELECT h.ratingCount, h.rating, h.stars1, h.stars2, h.stars3, h.stars4, h.stars5 FROM Hotel h " +
+            "WHERE h.id = :hotelId")
+    List<Object[]> findRatingSummary(@Param("hotelId") Long hotelId);
+
+    @Query("SELECT h.rating FROM Hotel h WHERE h.id = :hotelId")
+    Double findRatingById(@Param("hotelId") Long hotelId);
+
+    @Query("SELECT h.id, h.ratingSum, h.ratingCount, h.stars1, h.stars2, h.stars3, h.stars4, h.stars5 FROM Hotel h " +
+            "WHERE h.id > :afterId ORDER BY h.id")
+    List<Object[]> findRatingAggregates(@Param("afterId") Long afterId, Limit limit);
+
+    boolean existsByRatingCountIsNull();
+
+    @Query("SELECT h.id, i FROM Hotel h JOIN h.images i WHERE h.id IN :hotelIds ORDER BY h.id, index(i)")
+    List<Object[]> findImagesByHotelIds(@Param("hotelIds") Collection<Long> hotelIds);
+
+    @Query("SELECT h.id, a FROM Hotel h JOIN h.amenities a WHERE h.id IN :hotelIds")
+    List<Object[]> findAmenitiesByHotelIds(@Param("hotelIds") Collection<Long> hotelIds);
 }
\ No newline at end of file
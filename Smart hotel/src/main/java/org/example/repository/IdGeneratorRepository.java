@@ -0,0 +1,26 @@
+package org.example.repository;
+
+import jakarta.persistence.LockModeType;
+import org.example.entity.IdGenerator;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface IdGeneratorRepository extends JpaRepository<IdGenerator, String> {
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT g FROM IdGenerator g WHERE g.sequenceName = :sequenceName")
+    Optional<IdGenerator> findForUpdate(@Param("sequenceName") String sequenceName);
+
+    // Creates the row for a new sequence; concurrent callers all end up with the one row the key allows
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO id_generators (sequence_name, next_val) VALUES (:sequenceName, 1)",
+            nativeQuery = true)
+    int insertIfAbsent(@Param("sequenceName") String sequenceName);
+}
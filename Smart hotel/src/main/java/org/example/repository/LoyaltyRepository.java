@@ -2,11 +2,37 @@ package org.example.repository;
 
 import org.example.entity.Loyalty;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.Optional;
 
 @Repository
 public interface LoyaltyRepository extends JpaRepository<Loyalty, Long> {
     Optional<Loyalty> findByUserEmail(String userEmail);
-}
\ No newline at end of file
+
+    // Balance changes are single UPDATEs so concurrent rewards and redemptions never overwrite each other
+    @Modifying
+    @Query("UPDATE Loyalty l SET l.points = l.points + :points, l.available = l.available + :points, " +
+            "l.totalEarned = l.totalEarned + :points, l.updatedAt = :now WHERE l.userEmail = :userEmail")
+    int earn(@Param("userEmail") String userEmail, @Param("points") int points, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Loyalty l SET l.available = l.available - :points, l.totalRedeemed = l.totalRedeemed + :points, " +
+            "l.updatedAt = :now WHERE l.userEmail = :userEmail AND l.available >= :points")
+    int redeem(@Param("userEmail") String userEmail, @Param("points") int points, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE Loyalty l SET l.available = l.available + :points, l.totalRedeemed = l.totalRedeemed - :points, " +
+            "l.updatedAt = :now WHERE l.userEmail = :userEmail")
+    int restore(@Param("userEmail") String userEmail, @Param("points") int points, @Param("now") LocalDateTime now);
+
+    // Two first rewards racing for a new user both end up with the one account the unique email allows
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO loyalty (user_email, points, available, total_earned, total_redeemed, " +
+            "created_at, updated_at) VALUES (:userEmail, 0, 0, 0, 0, :now, :now)", nativeQuery = true)
+    int insertIfAbsent(@Param("userEmail") String userEmail, @Param("now") LocalDateTime now);
+}
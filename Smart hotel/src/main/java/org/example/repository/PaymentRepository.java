@@ -1,14 +1,38 @@
 package org.example.repository;
 
-import org.example.entity.Booking;
 import org.example.entity.Payment;
+import org.example.enums.PaymentStatus;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, Long> {
-    List<Payment> findByUserEmail(String userEmail);
-    boolean existsByBooking(Booking booking);
-}
\ No newline at end of file
+    @Query("SELECT p FROM Payment p WHERE p.userEmail = :userEmail " +
+            "AND (p.createdAt < :createdAt OR (p.createdAt = :createdAt AND p.id < :id)) " +
+            "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Payment> findUserPage(@Param("userEmail") String userEmail,
+                               @Param("createdAt") LocalDateTime createdAt,
+                               @Param("id") Long id,
+                               Limit limit);
+
+    @Query("SELECT p.id FROM Payment p WHERE p.status = :status AND p.createdAt < :cutoff ORDER BY p.id")
+    List<Long> findIdsByStatusCreatedBefore(@Param("status") PaymentStatus status,
+                                            @Param("cutoff") LocalDateTime cutoff);
+
+    // Only a PENDING payment can be settled, so a resumed or duplicated task never settles it twice
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = :to, p.gatewayReference = :reference, p.declineReason = :reason, " +
+            "p.processedAt = :processedAt WHERE p.id = :id AND p.status = org.example.enums.PaymentStatus.PENDING")
+    int settle(@Param("id") Long id,
+               @Param("to") PaymentStatus to,
+               @Param("reference") String reference,
+               @Param("reason") String reason,
+               @Param("processedAt") LocalDateTime processedAt);
+}
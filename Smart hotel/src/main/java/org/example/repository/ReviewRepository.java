@@ -1,20 +1,50 @@
 package org.example.repository;
 
 import org.example.entity.Review;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ReviewRepository extends JpaRepository<Review, Long> {
-    List<Review> findByUserEmail(String userEmail);
     List<Review> findByHotelId(Long hotelId);
     boolean existsByBookingId(Long bookingId);
 
-    // Add this method to find reviews by manager email
-    @Query("SELECT r FROM Review r WHERE r.hotel.managerEmail = :managerEmail")
-    List<Review> findByManagerEmail(@Param("managerEmail") String managerEmail);
+    // Hotel fetched with the reviews since the responses carry its name
+    @Query("SELECT r FROM Review r JOIN FETCH r.hotel WHERE r.hotel.id = :hotelId ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findLatestByHotelId(@Param("hotelId") Long hotelId, Limit limit);
+
+    // Star counts per hotel for the given hotels, at most five rows each
+    @Query("SELECT r.hotel.id, r.rating, COUNT(r) FROM Review r WHERE r.hotel.id IN :hotelIds GROUP BY r.hotel.id, r.rating")
+    List<Object[]> countStarsByHotelIds(@Param("hotelIds") Collection<Long> hotelIds);
+
+    // Newest first pages below the cursor; the hotel is fetched since the responses carry its name
+    @Query("SELECT r FROM Review r JOIN FETCH r.hotel WHERE r.userEmail = :userEmail " +
+            "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findUserPage(@Param("userEmail") String userEmail,
+                              @Param("createdAt") LocalDateTime createdAt,
+                              @Param("id") Long id,
+                              Limit limit);
+
+    @Query("SELECT r FROM Review r JOIN FETCH r.hotel WHERE r.managerEmail = :managerEmail " +
+            "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<Review> findManagerPage(@Param("managerEmail") String managerEmail,
+                                 @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") Long id,
+                                 Limit limit);
+
+    // Reviews written before the manager email was copied onto them
+    @Modifying
+    @Query("UPDATE Review r SET r.managerEmail = (SELECT h.managerEmail FROM Hotel h WHERE h = r.hotel) " +
+            "WHERE r.managerEmail IS NULL")
+    int backfillManagerEmails();
 }
\ No newline at end of file
@@ -0,0 +1,49 @@
+package org.example.repository;
+
+import org.example.entity.RoomInventoryDay;
+import org.example.enums.RoomType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RoomInventoryDayRepository extends JpaRepository<RoomInventoryDay, Long> {
+
+    @Query("SELECT d.stayDate FROM RoomInventoryDay d WHERE d.hotelId = :hotelId AND d.roomType = :roomType " +
+            "AND d.stayDate >= :checkin AND d.stayDate < :checkout")
+    List<LocalDate> findStayDates(@Param("hotelId") Long hotelId,
+                                  @Param("roomType") RoomType roomType,
+                                  @Param("checkin") LocalDate checkin,
+                                  @Param("checkout") LocalDate checkout);
+
+    // Updates only the nights that still have room; a count below the nights means the stay does not fit
+    // and the caller has to throw so the transaction rolls the partial update back
+    @Modifying
+    @Query("UPDATE RoomInventoryDay d SET d.reserved = d.reserved + :rooms WHERE d.hotelId = :hotelId " +
+            "AND d.roomType = :roomType AND d.stayDate >= :checkin AND d.stayDate < :checkout " +
+            "AND d.reserved + :rooms <= d.capacity")
+    int reserve(@Param("hotelId") Long hotelId,
+                @Param("roomType") RoomType roomType,
+                @Param("checkin") LocalDate checkin,
+                @Param("checkout") LocalDate checkout,
+                @Param("rooms") int rooms);
+
+    @Modifying
+    @Query("UPDATE RoomInventoryDay d SET d.reserved = d.reserved - :rooms WHERE d.hotelId = :hotelId " +
+            "AND d.roomType = :roomType AND d.stayDate >= :checkin AND d.stayDate < :checkout " +
+            "AND d.reserved >= :rooms")
+    int release(@Param("hotelId") Long hotelId,
+                @Param("roomType") RoomType roomType,
+                @Param("checkin") LocalDate checkin,
+                @Param("checkout") LocalDate checkout,
+                @Param("rooms") int rooms);
+
+    @Modifying
+    @Query("DELETE FROM RoomInventoryDay d WHERE d.hotelId = :hotelId")
+    void deleteByHotelId(@Param("hotelId") Long hotelId);
+}
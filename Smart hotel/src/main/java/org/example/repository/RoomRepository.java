@@ -3,8 +3,11 @@ package org.example.repository;
 import org.example.entity.Room;
 import org.example.enums.RoomType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +15,16 @@ import java.util.Optional;
 public interface RoomRepository extends JpaRepository<Room, Long> {
     List<Room> findByHotelId(Long hotelId);
     Optional<Room> findByHotelIdAndType(Long hotelId, RoomType type);
-}
\ No newline at end of file
+
+    @Query("SELECT r.hotel.id, r.type, r.price FROM Room r WHERE r.hotel.id IN :hotelIds ORDER BY r.id")
+    List<Object[]> findPricesByHotelIds(@Param("hotelIds") Collection<Long> hotelIds);
+
+    @Query("SELECT r.hotel.id, r.type, r.price FROM Room r ORDER BY r.id")
+    List<Object[]> findAllPrices();
+
+    @Query("SELECT r.hotel.id, r.type, SUM(r.available) FROM Room r WHERE r.type IS NOT NULL GROUP BY r.hotel.id, r.type")
+    List<Object[]> sumCapacityByHotelAndType();
+
+    @Query("SELECT r.hotel.id, SUM(r.available) FROM Room r WHERE r.hotel.id IN :hotelIds GROUP BY r.hotel.id")
+    List<Object[]> sumCapacityByHotelIds(@Param("hotelIds") Collection<Long> hotelIds);
+}
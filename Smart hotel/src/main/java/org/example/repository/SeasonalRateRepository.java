@@ -0,0 +1,34 @@
+package org.example.repository;
+
+import org.example.entity.SeasonalRate;
+import org.example.enums.RoomType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface SeasonalRateRepository extends JpaRepository<SeasonalRate, Long> {
+
+    @Query("SELECT s.hotel.id, s.roomType, s.startDate, s.endDate, s.price FROM SeasonalRate s " +
+            "WHERE s.hotel.id = :hotelId AND s.endDate > :from")
+    List<Object[]> findRatesByHotelId(@Param("hotelId") Long hotelId, @Param("from") LocalDate from);
+
+    @Query("SELECT s.hotel.id, s.roomType, s.startDate, s.endDate, s.price FROM SeasonalRate s WHERE s.endDate > :from")
+    List<Object[]> findAllRates(@Param("from") LocalDate from);
+
+    @Modifying
+    @Query("DELETE FROM SeasonalRate s WHERE s.hotel.id = :hotelId")
+    void deleteByHotelId(@Param("hotelId") Long hotelId);
+
+    @Query("SELECT COUNT(s) > 0 FROM SeasonalRate s WHERE s.hotel.id = :hotelId AND s.roomType = :roomType " +
+            "AND s.startDate < :endDate AND s.endDate > :startDate")
+    boolean existsOverlapping(@Param("hotelId") Long hotelId,
+                              @Param("roomType") RoomType roomType,
+                              @Param("startDate") LocalDate startDate,
+                              @Param("endDate") LocalDate endDate);
+}
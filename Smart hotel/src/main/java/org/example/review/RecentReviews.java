@@ -0,0 +1,107 @@
+package org.example.review;
+
+import org.example.dto.Response.ReviewResponse;
+import org.example.repository.ReviewRepository;
+import org.example.transaction.AfterCommit;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The latest reviews of every hotel, kept in a fixed size ring per hotel. A ring is filled from
+ * the (hotel_id, created_at) index the first time its hotel is asked for and afterwards only
+ * follows committed reviews, so a hotel page never loads more than the newest few reviews.
+ */
+@Component
+public class RecentReviews {
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    private final int capacity;
+
+    private final Map<Long, Ring> rings = new ConcurrentHashMap<>();
+
+    public RecentReviews(@Value("${spring.app.recentReviewsPerHotel:10}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    // Newest first, at most limit reviews
+    public List<ReviewResponse> latest(Long hotelId, int limit) {
+        return rings.computeIfAbsent(hotelId, this::load).latest(Math.min(limit, capacity));
+    }
+
+    // Adds or replaces a review once the caller's transaction commits
+    public void recordAfterCommit(Long hotelId, ReviewResponse review) {
+        AfterCommit.run(() -> record(hotelId, review));
+    }
+
+    public void evict(Long hotelId) {
+        rings.remove(hotelId);
+    }
+
+    private void record(Long hotelId, ReviewResponse review) {
+        // A hotel nobody looked at yet has no ring; loading it later picks the review up from the database
+        Ring ring = rings.get(hotelId);
+        if (ring != null) {
+            ring.upsert(review);
+        }
+    }
+
+    private Ring load(Long hotelId) {
+        Ring ring = new Ring(capacity);
+        List<ReviewResponse> newest = reviewRepository.findLatestByHotelId(hotelId, Limit.of(capacity))
+                .stream()
+                .map(ReviewResponse::new)
+                .toList();
+        for (int i = newest.size() - 1; i >= 0; i--) {
+            ring.upsert(newest.get(i));
+        }
+        return ring;
+    }
+
+    private static class Ring {
+        private final ReviewResponse[] slots;
+        private int next;
+        private int size;
+
+        Ring(int capacity) {
+            this.slots = new ReviewResponse[capacity];
+        }
+
+        synchronized void upsert(ReviewResponse review) {
+            if (slots.length == 0) {
+                return;
+            }
+            for (int i = 0; i < size; i++) {
+                int slot = Math.floorMod(next - 1 - i, slots.length);
+                if (slots[slot].getId().equals(review.getId())) {
+                    // A reply to a review still in the ring
+                    slots[slot] = review;
+                    return;
+                }
+            }
+            slots[next] = review;
+            next = (next + 1) % slots.length;
+            size = Math.min(size + 1, slots.length);
+        }
+
+        synchronized List<ReviewResponse> latest(int limit) {
+            List<ReviewResponse> result = new ArrayList<>(Math.min(limit, size));
+            for (int i = 0; i < Math.min(limit, size); i++) {
+                result.add(slots[Math.floorMod(next - 1 - i, slots.length)]);
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package org.example.search;
+
+import lombok.Getter;
+import org.example.entity.Hotel;
+import org.example.entity.Room;
+import org.example.enums.RoomType;
+
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+// Immutable snapshot of an approved hotel, holding everything a search result needs
+@Getter
+public class HotelDocument {
+    private final Long id;
+    private final String name;
+    private final String location;
+    private final String image;
+    private final List<String> amenities;
+    private final Double rating;
+    private final Map<RoomType, Double> roomPrices;
+    private final LocalDateTime createdAt;
+
+    public HotelDocument(Long id, String name, String location, String image, List<String> amenities,
+                         Double rating, Map<RoomType, Double> roomPrices, LocalDateTime createdAt) {
+        this.id = id;
+        this.name = name;
+        this.location = location;
+        this.image = image != null ? image : "";
+        this.amenities = amenities != null ? List.copyOf(amenities) : List.of();
+        this.rating = rating != null ? rating : 0.0;
+        this.roomPrices = roomPrices.isEmpty()
+                ? Collections.emptyMap()
+                : Collections.unmodifiableMap(new EnumMap<>(roomPrices));
+        this.createdAt = createdAt;
+    }
+
+    public static HotelDocument from(Hotel hotel) {
+        Map<RoomType, Double> prices = new EnumMap<>(RoomType.class);
+        for (Room room : hotel.getRooms()) {
+            if (room.getType() != null) {
+                prices.putIfAbsent(room.getType(), room.getPrice());
+            }
+        }
+        return new HotelDocument(
+                hotel.getId(),
+                hotel.getName(),
+                hotel.getLocation(),
+                hotel.getImages().isEmpty() ? "" : hotel.getImages().get(0),
+                hotel.getAmenities(),
+                hotel.getRating(),
+                prices,
+                hotel.getCreatedAt());
+    }
+
+    public HotelDocument withRating(Double rating) {
+        return new HotelDocument(id, name, location, image, amenities, rating, roomPrices, createdAt);
+    }
+
+    public boolean hasRoomType(RoomType roomType) {
+        return roomType == null || roomPrices.containsKey(roomType);
+    }
+
+    // Price for the requested room type, or the lowest room price when no type is requested
+    public Double priceFor(RoomType roomType) {
+        if (roomType != null) {
+            return roomPrices.getOrDefault(roomType, 0.0);
+        }
+        return roomPrices.values().stream()
+                .min(Double::compare)
+                .orElse(0.0);
+    }
+}
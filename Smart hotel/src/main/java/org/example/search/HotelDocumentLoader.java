@@ -0,0 +1,67 @@
+package org.example.search;
+
+import org.example.entity.Hotel;
+import org.example.enums.RoomType;
+import org.example.repository.HotelRepository;
+import org.example.repository.RoomRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Builds {@link HotelDocument}s for a batch of hotels with one query per collection
+ * (images, amenities, room prices) instead of initializing the lazy collections hotel by hotel.
+ */
+@Component
+public class HotelDocumentLoader {
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    public List<HotelDocument> load(List<Hotel> hotels) {
+        if (hotels.isEmpty()) {
+            return List.of();
+        }
+        List<Long> ids = hotels.stream().map(Hotel::getId).toList();
+
+        Map<Long, String> firstImages = new HashMap<>();
+        for (Object[] row : hotelRepository.findImagesByHotelIds(ids)) {
+            firstImages.putIfAbsent((Long) row[0], (String) row[1]);
+        }
+
+        Map<Long, List<String>> amenities = new HashMap<>();
+        for (Object[] row : hotelRepository.findAmenitiesByHotelIds(ids)) {
+            amenities.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((String) row[1]);
+        }
+
+        Map<Long, Map<RoomType, Double>> prices = new HashMap<>();
+        for (Object[] row : roomRepository.findPricesByHotelIds(ids)) {
+            if (row[1] != null) {
+                prices.computeIfAbsent((Long) row[0], id -> new EnumMap<>(RoomType.class))
+                        .putIfAbsent((RoomType) row[1], (Double) row[2]);
+            }
+        }
+
+        List<HotelDocument> documents = new ArrayList<>(hotels.size());
+        for (Hotel hotel : hotels) {
+            documents.add(new HotelDocument(
+                    hotel.getId(),
+                    hotel.getName(),
+                    hotel.getLocation(),
+                    firstImages.get(hotel.getId()),
+                    amenities.get(hotel.getId()),
+                    hotel.getRating(),
+                    prices.getOrDefault(hotel.getId(), Map.of()),
+                    hotel.getCreatedAt()));
+        }
+        return documents;
+    }
+}
@@ -0,0 +1,49 @@
+package org.example.search;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationStartedEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One-off migration for hotel images saved before they had a position: their rows all share one
+ * (or no) {@code image_order}, so the cover image a hotel shows was undefined. Runs on
+ * {@link ApplicationStartedEvent}, before the search index is rebuilt on ready, and does nothing
+ * once every hotel's images are numbered.
+ */
+@Component
+public class HotelImageOrderBackfill {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelImageOrderBackfill.class);
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @EventListener(ApplicationStartedEvent.class)
+    @Transactional
+    public void backfill() {
+        List<Long> hotelIds = jdbcTemplate.queryForList("SELECT hotel_id FROM hotel_images " +
+                "GROUP BY hotel_id HAVING COUNT(DISTINCT image_order) < COUNT(*)", Long.class);
+        for (Long hotelId : hotelIds) {
+            // Keeps whatever order already exists; rows without one fall back to the URL so reruns agree
+            List<String> images = jdbcTemplate.queryForList("SELECT image_url FROM hotel_images " +
+                    "WHERE hotel_id = ? ORDER BY image_order, image_url", String.class, hotelId);
+            jdbcTemplate.update("DELETE FROM hotel_images WHERE hotel_id = ?", hotelId);
+            List<Object[]> rows = new ArrayList<>(images.size());
+            for (int i = 0; i < images.size(); i++) {
+                rows.add(new Object[]{hotelId, images.get(i), i});
+            }
+            jdbcTemplate.batchUpdate("INSERT INTO hotel_images (hotel_id, image_url, image_order) VALUES (?, ?, ?)", rows);
+        }
+        if (!hotelIds.isEmpty()) {
+            logger.info("Numbered the images of {} hotels", hotelIds.size());
+        }
+    }
+}
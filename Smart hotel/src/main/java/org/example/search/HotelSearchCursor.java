@@ -0,0 +1,42 @@
+package org.example.search;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+// Opaque keyset position: the sort it belongs to plus the (key, id) of the last hotel returned
+@Getter
+@AllArgsConstructor
+public class HotelSearchCursor {
+    private final HotelSort sort;
+    private final double key;
+    private final long id;
+
+    public String encode() {
+        String raw = sort.name() + ":" + key + ":" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static HotelSearchCursor decode(String cursor, HotelSort sort) {
+        if (cursor == null || cursor.isEmpty()) {
+            return null;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 3 || HotelSort.valueOf(parts[0]) != sort) {
+                throw new IllegalArgumentException("Cursor does not match sort " + sort.name().toLowerCase());
+            }
+            return new HotelSearchCursor(sort, Double.parseDouble(parts[1]), Long.parseLong(parts[2]));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+
+    public boolean isBefore(double otherKey, long otherId) {
+        int cmp = Double.compare(key, otherKey);
+        return cmp < 0 || (cmp == 0 && id < otherId);
+    }
+}
@@ -0,0 +1,372 @@
+package org.example.search;
+
+import org.example.entity.Hotel;
+import org.example.enums.HotelStatus;
+import org.example.enums.RoomType;
+import org.example.repository.HotelRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * In-process inverted index over approved hotels. Locations are split into tokens and every
+ * token contributes its 1-, 2- and 3-grams, so a substring query is answered by intersecting
+ * postings and verifying the few remaining candidates instead of a LIKE scan in MySQL.
+ * Every sort order is also kept as a sorted view so unfiltered pages are read with keyset
+ * seeks, never by skipping over earlier results. Changes that commit while a rebuild is reading
+ * the table are recorded and replayed onto the new postings before they replace the old ones.
+ */
+@Component
+public class HotelSearchIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(HotelSearchIndex.class);
+
+    private static final int MAX_GRAM = 3;
+    private static final int REBUILD_BATCH_SIZE = 500;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private HotelDocumentLoader hotelDocumentLoader;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private Postings postings = new Postings();
+
+    // Non-null while a rebuild is running, guarded by the write lock
+    private List<Consumer<Postings>> missedByRebuild;
+
+    private volatile boolean ready = false;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        // Start recording before the first read, so nothing committed after it can be lost in the swap
+        lock.writeLock().lock();
+        try {
+            missedByRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        try {
+            // Walk approved hotels in (status, id) keyset batches so the rebuild never holds the whole table
+            List<HotelDocument> docs = new ArrayList<>();
+            long lastId = 0;
+            List<Hotel> batch;
+            do {
+                batch = hotelRepository.findByStatusAndIdGreaterThanOrderByIdAsc(
+                        HotelStatus.APPROVED, lastId, Limit.of(REBUILD_BATCH_SIZE));
+                docs.addAll(hotelDocumentLoader.load(batch));
+                if (!batch.isEmpty()) {
+                    lastId = batch.get(batch.size() - 1).getId();
+                }
+            } while (batch.size() == REBUILD_BATCH_SIZE);
+            load(docs);
+        } finally {
+            lock.writeLock().lock();
+            try {
+                missedByRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+
+    private void load(List<HotelDocument> docs) {
+        Postings rebuilt = new Postings();
+        for (HotelDocument doc : docs) {
+            rebuilt.add(doc);
+        }
+
+        lock.writeLock().lock();
+        try {
+            // Replayed in commit order; each change is idempotent, so one the read already saw does no harm
+            if (missedByRebuild != null) {
+                for (Consumer<Postings> change : missedByRebuild) {
+                    change.accept(rebuilt);
+                }
+                missedByRebuild = null;
+            }
+            postings = rebuilt;
+            ready = true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        logger.info("Hotel search index built with {} approved hotels", docs.size());
+    }
+
+    // Adds, replaces or drops a hotel depending on its current status
+    public void index(Hotel hotel) {
+        if (hotel.getStatus() != HotelStatus.APPROVED) {
+            remove(hotel.getId());
+            return;
+        }
+        HotelDocument doc = HotelDocument.from(hotel);
+        apply(target -> {
+            target.remove(doc.getId());
+            target.add(doc);
+        });
+    }
+
+    public void remove(Long hotelId) {
+        apply(target -> target.remove(hotelId));
+    }
+
+    public void updateRating(Long hotelId, Double rating) {
+        apply(target -> {
+            HotelDocument doc = target.documents.get(hotelId);
+            if (doc != null) {
+                // Rating is a sort key, so the hotel has to move within the sorted views
+                target.remove(hotelId);
+                target.add(doc.withRating(rating));
+            }
+        });
+    }
+
+    private void apply(Consumer<Postings> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(postings);
+            if (missedByRebuild != null) {
+                missedByRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns up to {@code limit + 1} hotels following {@code after} in the requested order that
+     * also pass {@code filter}; the extra hotel only tells the caller whether another page exists.
+     */
+    public List<HotelDocument> search(String location, RoomType roomType, HotelSort sort,
+                                      HotelSearchCursor after, int limit, Predicate<HotelDocument> filter) {
+        String query = normalize(location);
+
+        lock.readLock().lock();
+        try {
+            if (query.isEmpty()) {
+                return scanView(postings.view(sort, roomType), roomType, after, limit, filter);
+            }
+
+            Set<Long> candidates = null;
+            if (roomType != null) {
+                candidates = postings.roomTypes.getOrDefault(roomType, Set.of());
+            }
+            for (String token : tokenize(query)) {
+                candidates = intersect(candidates, postings.candidatesForToken(token));
+                if (candidates.isEmpty()) {
+                    return List.of();
+                }
+            }
+
+            List<HotelDocument> matches = new ArrayList<>();
+            Collection<Long> ids = candidates != null ? candidates : postings.locations.keySet();
+            for (Long id : ids) {
+                // Postings only narrow the set down, the substring check keeps LIKE semantics
+                if (postings.locations.get(id).contains(query)) {
+                    matches.add(postings.documents.get(id));
+                }
+            }
+            return page(matches, roomType, sort, after, limit, filter);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Keyset page over an already filtered set of hotels
+    public static List<HotelDocument> page(Collection<HotelDocument> hotels, RoomType roomType, HotelSort sort,
+                                           HotelSearchCursor after, int limit, Predicate<HotelDocument> filter) {
+        List<HotelDocument> page = new ArrayList<>();
+        for (HotelDocument hotel : hotels) {
+            if (hotel.hasRoomType(roomType)
+                    && (after == null || after.isBefore(sort.key(hotel, roomType), hotel.getId()))) {
+                page.add(hotel);
+            }
+        }
+        page.sort(Comparator.comparingDouble((HotelDocument hotel) -> sort.key(hotel, roomType))
+                .thenComparingLong(HotelDocument::getId));
+        // Filter after sorting, so an expensive filter stops as soon as the page is full
+        List<HotelDocument> result = new ArrayList<>(Math.min(page.size(), limit + 1));
+        for (HotelDocument hotel : page) {
+            if (filter.test(hotel)) {
+                result.add(hotel);
+                if (result.size() > limit) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    private static List<HotelDocument> scanView(TreeMap<SortKey, HotelDocument> view, RoomType roomType,
+                                                HotelSearchCursor after, int limit, Predicate<HotelDocument> filter) {
+        if (view == null) {
+            return List.of();
+        }
+        Map<SortKey, HotelDocument> tail = after == null
+                ? view
+                : view.tailMap(new SortKey(after.getKey(), after.getId()), false);
+        List<HotelDocument> page = new ArrayList<>(limit + 1);
+        for (HotelDocument hotel : tail.values()) {
+            if (hotel.hasRoomType(roomType) && filter.test(hotel)) {
+                page.add(hotel);
+                if (page.size() > limit) {
+                    break;
+                }
+            }
+        }
+        return page;
+    }
+
+    private static Set<Long> intersect(Set<Long> current, Set<Long> posting) {
+        if (current == null) {
+            return posting;
+        }
+        Set<Long> smaller = current.size() <= posting.size() ? current : posting;
+        Set<Long> larger = smaller == current ? posting : current;
+        Set<Long> result = new HashSet<>();
+        for (Long id : smaller) {
+            if (larger.contains(id)) {
+                result.add(id);
+            }
+        }
+        return result;
+    }
+
+    private static Set<String> grams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String token : tokenize(normalized)) {
+            for (int start = 0; start < token.length(); start++) {
+                for (int len = 1; len <= MAX_GRAM && start + len <= token.length(); len++) {
+                    grams.add(token.substring(start, start + len));
+                }
+            }
+        }
+        return grams;
+    }
+
+    private static List<String> tokenize(String normalized) {
+        List<String> tokens = new ArrayList<>();
+        for (String token : normalized.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toLowerCase(Locale.ROOT);
+    }
+
+    // All index structures, swapped as a whole on rebuild and mutated in place under the write lock
+    private static class Postings {
+        private final Map<Long, HotelDocument> documents = new HashMap<>();
+        private final Map<Long, String> locations = new HashMap<>();
+        private final Map<String, Set<Long>> gramPostings = new HashMap<>();
+        private final Map<RoomType, Set<Long>> roomTypes = new EnumMap<>(RoomType.class);
+        private final Map<HotelSort, TreeMap<SortKey, HotelDocument>> sortViews = new EnumMap<>(HotelSort.class);
+        private final Map<RoomType, TreeMap<SortKey, HotelDocument>> priceViews = new EnumMap<>(RoomType.class);
+
+        void add(HotelDocument doc) {
+            String normalized = normalize(doc.getLocation());
+            documents.put(doc.getId(), doc);
+            locations.put(doc.getId(), normalized);
+            for (String gram : grams(normalized)) {
+                gramPostings.computeIfAbsent(gram, g -> new HashSet<>()).add(doc.getId());
+            }
+            for (RoomType type : doc.getRoomPrices().keySet()) {
+                roomTypes.computeIfAbsent(type, t -> new HashSet<>()).add(doc.getId());
+                priceViews.computeIfAbsent(type, t -> new TreeMap<>())
+                        .put(SortKey.of(doc, HotelSort.PRICE, type), doc);
+            }
+            for (HotelSort sort : HotelSort.values()) {
+                sortViews.computeIfAbsent(sort, s -> new TreeMap<>())
+                        .put(SortKey.of(doc, sort, null), doc);
+            }
+        }
+
+        void remove(Long hotelId) {
+            HotelDocument existing = documents.remove(hotelId);
+            String normalized = locations.remove(hotelId);
+            if (existing == null) {
+                return;
+            }
+            for (String gram : grams(normalized)) {
+                Set<Long> posting = gramPostings.get(gram);
+                if (posting != null && posting.remove(hotelId) && posting.isEmpty()) {
+                    gramPostings.remove(gram);
+                }
+            }
+            for (RoomType type : existing.getRoomPrices().keySet()) {
+                roomTypes.get(type).remove(hotelId);
+                priceViews.get(type).remove(SortKey.of(existing, HotelSort.PRICE, type));
+            }
+            for (HotelSort sort : HotelSort.values()) {
+                sortViews.get(sort).remove(SortKey.of(existing, sort, null));
+            }
+        }
+
+        Set<Long> candidatesForToken(String token) {
+            if (token.length() <= MAX_GRAM) {
+                return gramPostings.getOrDefault(token, Set.of());
+            }
+            Set<Long> result = null;
+            for (int i = 0; i + MAX_GRAM <= token.length(); i++) {
+                result = intersect(result, gramPostings.getOrDefault(token.substring(i, i + MAX_GRAM), Set.of()));
+                if (result.isEmpty()) {
+                    break;
+                }
+            }
+            return result;
+        }
+
+        // Price depends on the requested room type, so each type has its own price ordering
+        TreeMap<SortKey, HotelDocument> view(HotelSort sort, RoomType roomType) {
+            if (sort == HotelSort.PRICE && roomType != null) {
+                return priceViews.get(roomType);
+            }
+            return sortViews.get(sort);
+        }
+    }
+
+    private record SortKey(double key, long id) implements Comparable<SortKey> {
+        static SortKey of(HotelDocument doc, HotelSort sort, RoomType roomType) {
+            return new SortKey(sort.key(doc, roomType), doc.getId());
+        }
+
+        @Override
+        public int compareTo(SortKey other) {
+            int cmp = Double.compare(key, other.key);
+            return cmp != 0 ? cmp : Long.compare(id, other.id);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package org.example.search;
+
+import org.example.enums.RoomType;
+
+import java.time.ZoneOffset;
+
+// Keys are arranged so that ascending (key, id) order is the order the client asked for
+public enum HotelSort {
+    NEWEST,
+    RATING,
+    PRICE;
+
+    public double key(HotelDocument hotel, RoomType roomType) {
+        switch (this) {
+            case RATING:
+                return -hotel.getRating();
+            case PRICE:
+                return hotel.priceFor(roomType);
+            default:
+                return hotel.getCreatedAt() == null
+                        ? 0
+                        : -hotel.getCreatedAt().toInstant(ZoneOffset.UTC).toEpochMilli();
+        }
+    }
+
+    public static HotelSort parse(String value) {
+        if (value == null || value.isEmpty()) {
+            return NEWEST;
+        }
+        try {
+            return HotelSort.valueOf(value.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid sort: " + value + ". Valid options are newest, rating and price");
+        }
+    }
+}
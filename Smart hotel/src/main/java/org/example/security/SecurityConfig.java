@@ -1,9 +1,15 @@
 package org.example.security;
 
+import org.example.logging.AccessLog;
+import org.example.logging.AccessLogFilter;
+import org.example.metrics.MetricsRegistry;
+import org.example.ratelimit.RateLimitFilter;
+import org.example.ratelimit.RateLimiter;
 import org.example.security.jwt.AuthEntryPointJwt;
 import org.example.security.jwt.AuthTokenFilter;
 import org.example.security.service.UserDetailsServiceImpl;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpMethod;
@@ -14,10 +20,9 @@ import org.springframework.security.config.annotation.authentication.configurati
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.http.SessionCreationPolicy;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
+import org.springframework.security.web.context.SecurityContextHolderFilter;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
@@ -38,15 +43,37 @@ public class SecurityConfig {
     @Autowired
     private AuthTokenFilter authTokenFilter;
 
-    @Bean
-    public PasswordEncoder passwordEncoder() {
-        return new BCryptPasswordEncoder();
+    @Autowired
+    private RateLimiter rateLimiter;
+
+    @Autowired
+    private AccessLog accessLog;
+
+    @Autowired
+    private MetricsRegistry metricsRegistry;
+
+    @Value("${spring.app.bcryptStrength:10}")
+    private int bcryptStrength;
+
+    @Value("${spring.app.passwordHashThreads:0}")
+    private int passwordHashThreads;
+
+    @Value("${spring.app.passwordHashQueue:32}")
+    private int passwordHashQueue;
+
+    // Half the cores by default, so hashing never takes the whole machine
+    @Bean(destroyMethod = "shutdown")
+    public BoundedPasswordEncoder passwordEncoder() {
+        int threads = passwordHashThreads > 0 ? passwordHashThreads
+                : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        return new BoundedPasswordEncoder(bcryptStrength, threads, passwordHashQueue);
     }
 
     @Bean
     public AuthenticationProvider authenticationProvider() {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
+        authProvider.setUserDetailsPasswordService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
         return authProvider;
     }
@@ -61,8 +88,8 @@ public class SecurityConfig {
         CorsConfiguration configuration = new CorsConfiguration();
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:5173", "http://localhost:3000"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE", "OPTIONS"));
-        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With"));
-        configuration.setExposedHeaders(Arrays.asList("Authorization"));
+        configuration.setAllowedHeaders(Arrays.asList("Authorization", "Content-Type", "X-Requested-With", "Idempotency-Key"));
+        configuration.setExposedHeaders(Arrays.asList("Authorization", "Idempotent-Replayed", "Retry-After"));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -90,6 +117,8 @@ public class SecurityConfig {
 
         http.authenticationProvider(authenticationProvider());
         http.addFilterBefore(authTokenFilter, UsernamePasswordAuthenticationFilter.class);
+        http.addFilterAfter(new RateLimitFilter(rateLimiter), AuthTokenFilter.class);
+        http.addFilterAfter(new AccessLogFilter(accessLog, metricsRegistry), SecurityContextHolderFilter.class);
 
         return http.build();
     }
@@ -1,8 +1,12 @@
 package org.example.security.jwt;
 
+import org.example.dashboard.DashboardSnapshot;
 import org.example.enums.Roles;
 import org.example.entity.User;
 import org.example.repository.UserRepository;
+import org.example.security.service.RefreshTokenService;
+import org.example.security.service.UserDetailsImpl;
+import org.example.security.service.UserDetailsServiceImpl;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -11,6 +15,7 @@ import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.web.bind.annotation.*;
@@ -36,6 +41,15 @@ public class AuthController {
     @Autowired
     private JwtUtils jwtUtils;
 
+    @Autowired
+    private DashboardSnapshot dashboardSnapshot;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
     @PostMapping("/login")
     public ResponseEntity<?> authenticateUser(@RequestBody LoginRequest loginRequest) {
         try {
@@ -57,7 +71,8 @@ public class AuthController {
                     .map(auth -> auth.getAuthority())
                     .collect(Collectors.toList());
 
-            return ResponseEntity.ok(new LoginResponse(userDetails.getUsername(), roles, jwt));
+            String refreshToken = refreshTokenService.issue(userDetails.getUsername());
+            return ResponseEntity.ok(new LoginResponse(userDetails.getUsername(), roles, jwt, refreshToken));
 
         } catch (BadCredentialsException e) {
             logger.error("Invalid login attempt for user {}", loginRequest.getEmail());
@@ -65,6 +80,32 @@ public class AuthController {
         }
     }
 
+    // Trades a refresh token for a new access token and a new refresh token, without a password check
+    @PostMapping("/refresh")
+    public ResponseEntity<?> refresh(@RequestBody RefreshRequest refreshRequest) {
+        try {
+            RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshRequest.getRefreshToken());
+            UserDetailsImpl userDetails = userDetailsService.loadPrincipal(rotation.email());
+            List<String> roles = userDetails.getAuthorities().stream()
+                    .map(auth -> auth.getAuthority())
+                    .collect(Collectors.toList());
+            return ResponseEntity.ok(new LoginResponse(userDetails.getUsername(), roles,
+                    jwtUtils.generateTokenFromUsername(userDetails), rotation.refreshToken()));
+        } catch (AuthenticationException e) {
+            return ResponseEntity.status(401).body("Invalid or expired refresh token");
+        }
+    }
+
+    @PostMapping("/logout")
+    public ResponseEntity<?> logout(@RequestBody RefreshRequest refreshRequest) {
+        try {
+            refreshTokenService.revoke(refreshRequest.getRefreshToken());
+        } catch (AuthenticationException e) {
+            // Nothing to revoke
+        }
+        return ResponseEntity.noContent().build();
+    }
+
     @PostMapping("/register")
     public ResponseEntity<?> registerUser(@RequestBody RegisterRequest registerRequest) {
         logger.info("Register endpoint called with email: {}", registerRequest.getEmail());
@@ -93,6 +134,7 @@ public class AuthController {
         }
 
         userRepository.save(user);
+        dashboardSnapshot.userAdded();
 
         return ResponseEntity.ok("User registered successfully!");
     }
@@ -5,13 +5,16 @@ import java.util.List;
 public class LoginResponse {
     private String jwtToken;
 
+    private String refreshToken;
+
     private String username;
     private List<String> roles;
 
-    public LoginResponse(String username, List<String> roles, String jwtToken) {
+    public LoginResponse(String username, List<String> roles, String jwtToken, String refreshToken) {
         this.username = username;
         this.roles = roles;
         this.jwtToken = jwtToken;
+        this.refreshToken = refreshToken;
     }
 
     public String getJwtToken() {
@@ -22,6 +25,14 @@ public class LoginResponse {
         this.jwtToken = jwtToken;
     }
 
+    public String getRefreshToken() {
+        return refreshToken;
+    }
+
+    public void setRefreshToken(String refreshToken) {
+        this.refreshToken = refreshToken;
+    }
+
     public String getUsername() {
         return username;
     }
@@ -0,0 +1,121 @@
+package org.example.security.service;
+
+import org.example.entity.RefreshToken;
+import org.example.repository.RefreshTokenRepository;
+import org.example.security.jwt.JwtUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
+
+/**
+ * Opaque, single use refresh tokens. The client gets 256 random bits and the server keeps only
+ * their SHA-256, looked up through a unique index, so renewing a session is one indexed read and
+ * two small writes instead of a password check. Every refresh revokes the presented token and
+ * issues a new one; a token that is presented again after rotation is treated as stolen and
+ * revokes every session of its user.
+ */
+@Service
+public class RefreshTokenService {
+
+    private static final Logger logger = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private static final int TOKEN_BYTES = 32;
+
+    private final SecureRandom random = new SecureRandom();
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    public String issue(String email) {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        random.nextBytes(bytes);
+        String token = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+        refreshTokenRepository.save(RefreshToken.builder()
+                .userEmail(email)
+                .tokenHash(hash(token))
+                .expiresAt(LocalDateTime.now().plus(Duration.ofMillis(jwtUtils.getRefreshToken().getExpirationMs())))
+                .build());
+        return token;
+    }
+
+    // Revokes the presented token and returns its user with a replacement token
+    public Rotation rotate(String token) {
+        RefreshToken stored = find(token);
+        LocalDateTime now = LocalDateTime.now();
+        if (stored.getRevokedAt() != null) {
+            int revoked = transactionTemplate.execute(status ->
+                    refreshTokenRepository.revokeAllByUserEmail(stored.getUserEmail(), now));
+            logger.warn("Revoked refresh token reused for {}; revoked {} active sessions", stored.getUserEmail(), revoked);
+            throw new BadCredentialsException("Refresh token has been revoked");
+        }
+        if (stored.getExpiresAt().isBefore(now)) {
+            throw new BadCredentialsException("Refresh token has expired");
+        }
+        return transactionTemplate.execute(status -> {
+            if (refreshTokenRepository.revoke(stored.getId(), now) == 0) {
+                throw new BadCredentialsException("Refresh token has been revoked");
+            }
+            return new Rotation(stored.getUserEmail(), issue(stored.getUserEmail()));
+        });
+    }
+
+    public void revoke(String token) {
+        RefreshToken stored = find(token);
+        transactionTemplate.executeWithoutResult(status ->
+                refreshTokenRepository.revoke(stored.getId(), LocalDateTime.now()));
+    }
+
+    // Must run inside the caller's transaction
+    public void revokeAll(String email) {
+        refreshTokenRepository.revokeAllByUserEmail(email, LocalDateTime.now());
+    }
+
+    @Scheduled(fixedDelayString = "${spring.app.refreshTokenSweepIntervalMs:3600000}",
+            initialDelayString = "${spring.app.refreshTokenSweepIntervalMs:3600000}")
+    public void purgeExpired() {
+        Integer purged = transactionTemplate.execute(status ->
+                refreshTokenRepository.deleteExpiredBefore(LocalDateTime.now()));
+        if (purged != null && purged > 0) {
+            logger.info("Purged {} expired refresh tokens", purged);
+        }
+    }
+
+    private RefreshToken find(String token) {
+        if (token == null || token.isBlank()) {
+            throw new BadCredentialsException("Refresh token is required");
+        }
+        return refreshTokenRepository.findByTokenHash(hash(token))
+                .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+    }
+
+    private static String hash(String token) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(token.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    public record Rotation(String email, String refreshToken) {
+    }
+}
@@ -3,18 +3,45 @@ package org.example.security.service;
 import jakarta.transaction.Transactional;
 import org.example.entity.User;
 import org.example.repository.UserRepository;
+import org.example.transaction.AfterCommit;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.security.core.userdetails.UsernameNotFoundException;
 import org.springframework.stereotype.Service;
 
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Loads users for login and resolves the principal of authenticated requests. Principals are
+ * kept in a bounded LRU cache keyed by email, without the password hash, so a steady stream of
+ * requests from the same users reads nothing from the database. Role changes and deletions evict
+ * the entry at once and again when their transaction commits. After a successful login with a
+ * hash weaker than the configured BCrypt strength the provider hands back a rehash to store.
+ */
 @Service
-public class UserDetailsServiceImpl implements UserDetailsService {
+public class UserDetailsServiceImpl implements UserDetailsService, UserDetailsPasswordService {
 
     @Autowired
     private UserRepository userRepository;
 
+    @Value("${spring.app.userCacheTtlMs:300000}")
+    private long ttlMs;
+
+    private final PrincipalCache cache;
+
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public UserDetailsServiceImpl(@Value("${spring.app.userCacheSize:10000}") int cacheSize) {
+        this.cache = new PrincipalCache(cacheSize);
+    }
+
     @Override
     @Transactional
     public UserDetails loadUserByUsername(String username) throws UsernameNotFoundException {
@@ -23,4 +50,102 @@ public class UserDetailsServiceImpl implements UserDetailsService {
 
         return UserDetailsImpl.build(user);
     }
+
+    @Override
+    @Transactional
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(user.getUsername(), newPassword);
+        evict(user.getUsername());
+        if (user instanceof UserDetailsImpl details) {
+            details.setPassword(newPassword);
+        }
+        return user;
+    }
+
+    // The principal behind a verified token, served from the cache while it is fresh
+    public UserDetailsImpl loadPrincipal(String email) throws UsernameNotFoundException {
+        long now = System.currentTimeMillis();
+        CachedPrincipal cached = cache.get(email);
+        if (cached != null && now - cached.loadedAt() < ttlMs) {
+            hits.incrementAndGet();
+            return cached.principal();
+        }
+        misses.incrementAndGet();
+
+        // An eviction while the user is being read makes the result too old to keep
+        long generation = cache.generation();
+        User user = userRepository.findByEmail(email)
+                .orElseThrow(() -> new UsernameNotFoundException("User Not found with email: " + email));
+        UserDetailsImpl principal = UserDetailsImpl.build(user);
+        principal.setPassword(null);
+        cache.putIfCurrent(email, new CachedPrincipal(principal, now), generation);
+        return principal;
+    }
+
+    public void evict(String email) {
+        if (email == null) {
+            return;
+        }
+        cache.remove(email);
+        evictions.incrementAndGet();
+        AfterCommit.run(() -> cache.remove(email));
+    }
+
+    public Map<String, Object> getCacheStats() {
+        long hitCount = hits.get();
+        long missCount = misses.get();
+        long lookups = hitCount + missCount;
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.size());
+        stats.put("maxSize", cache.capacity);
+        stats.put("ttlMs", ttlMs);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRate", lookups > 0 ? Math.round(hitCount * 10000.0 / lookups) / 10000.0 : 0.0);
+        stats.put("evictions", evictions.get());
+        return stats;
+    }
+
+    private record CachedPrincipal(UserDetailsImpl principal, long loadedAt) {
+    }
+
+    // Access ordered LinkedHashMap evicting the least recently used principal once full
+    private static class PrincipalCache {
+        private final int capacity;
+        private final Map<String, CachedPrincipal> entries;
+        private long generation;
+
+        PrincipalCache(int capacity) {
+            this.capacity = capacity;
+            this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, CachedPrincipal> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        synchronized CachedPrincipal get(String email) {
+            return entries.get(email);
+        }
+
+        synchronized long generation() {
+            return generation;
+        }
+
+        synchronized void putIfCurrent(String email, CachedPrincipal principal, long loadedGeneration) {
+            if (generation == loadedGeneration) {
+                entries.put(email, principal);
+            }
+        }
+
+        synchronized void remove(String email) {
+            entries.remove(email);
+            generation++;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
 }
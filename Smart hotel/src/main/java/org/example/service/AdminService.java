@@ -1,15 +1,29 @@
 package org.example.service;
 
+import org.example.dashboard.DashboardSnapshot;
+import org.example.dto.Response.CursorPageResponse;
 import org.example.entity.Hotel;
 import org.example.entity.User;
 import org.example.enums.HotelStatus;
 import org.example.enums.Roles;
 import org.example.exceptions.ResourceNotFoundException;
+import org.example.inventory.AvailabilityEngine;
+import org.example.pagination.CursorPages;
+import org.example.pagination.PageCursor;
+import org.example.pricing.PricingEngine;
 import org.example.repository.BookingRepository;
+import org.example.repository.HotelDailyStatsRepository;
 import org.example.repository.HotelRepository;
+import org.example.repository.SeasonalRateRepository;
 import org.example.repository.UserRepository;
+import org.example.review.RecentReviews;
+import org.example.search.HotelSearchIndex;
+import org.example.security.service.RefreshTokenService;
+import org.example.security.service.UserDetailsServiceImpl;
+import org.example.transaction.AfterCommit;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 import java.util.Map;
@@ -26,9 +40,40 @@ public class AdminService {
     @Autowired
     private BookingRepository bookingRepository;
 
+    @Autowired
+    private HotelSearchIndex hotelSearchIndex;
+
+    @Autowired
+    private AvailabilityEngine availabilityEngine;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private RecentReviews recentReviews;
+
+    @Autowired
+    private SeasonalRateRepository seasonalRateRepository;
+
+    @Autowired
+    private DashboardSnapshot dashboardSnapshot;
+
+    @Autowired
+    private HotelDailyStatsRepository hotelDailyStatsRepository;
+
+    @Autowired
+    private UserDetailsServiceImpl userDetailsService;
+
+    @Autowired
+    private RefreshTokenService refreshTokenService;
+
     // ✅ Users
-    public List<User> getAllUsers() {
-        return userRepository.findAll();
+    public CursorPageResponse<User> getAllUsers(Integer limit, String after) {
+        int pageSize = CursorPages.pageSize(limit);
+        PageCursor cursor = PageCursor.decode(after);
+        List<User> users = userRepository.findPage(cursor.getCreatedAtInstant(), cursor.getId(),
+                CursorPages.fetchLimit(pageSize));
+        return CursorPages.page(users, pageSize, u -> PageCursor.of(u.getCreatedAt(), u.getId()), u -> u);
     }
 
     public User updateUserRole(Long userId, String newRole) {
@@ -36,18 +81,28 @@ public class AdminService {
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
 
         user.setRole(Roles.valueOf(newRole.toUpperCase()));
-        return userRepository.save(user);
+        User saved = userRepository.save(user);
+        userDetailsService.evict(user.getEmail());
+        return saved;
     }
 
+    @Transactional
     public void deleteUser(Long userId) {
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new ResourceNotFoundException("User not found with id: " + userId));
         userRepository.delete(user);
+        refreshTokenService.revokeAll(user.getEmail());
+        userDetailsService.evict(user.getEmail());
+        dashboardSnapshot.userRemoved();
     }
 
 
-    public List<Hotel> getAllHotels() {
-        return hotelRepository.findAll();
+    public CursorPageResponse<Hotel> getAllHotels(Integer limit, String after) {
+        int pageSize = CursorPages.pageSize(limit);
+        PageCursor cursor = PageCursor.decode(after);
+        List<Hotel> hotels = hotelRepository.findPage(cursor.getCreatedAt(), cursor.getId(),
+                CursorPages.fetchLimit(pageSize));
+        return CursorPages.page(hotels, pageSize, h -> new PageCursor(h.getCreatedAt(), h.getId()), h -> h);
     }
 
     public List<Hotel> getHotelsByStatus(String status) {
@@ -60,52 +115,59 @@ public class AdminService {
         return hotelRepository.findByStatus(hotelStatus);
     }
 
+    @Transactional
     public Hotel approveHotel(Long hotelId) {
         Hotel hotel = hotelRepository.findById(hotelId)
                 .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with id: " + hotelId));
+        dashboardSnapshot.hotelStatusChanged(hotel.getStatus(), HotelStatus.APPROVED);
         hotel.setStatus(HotelStatus.APPROVED);
-        return hotelRepository.save(hotel);
+        Hotel saved = hotelRepository.save(hotel);
+        AfterCommit.run(() -> hotelSearchIndex.index(saved));
+        return saved;
     }
 
+    @Transactional
     public Hotel rejectHotel(Long hotelId) {
         Hotel hotel = hotelRepository.findById(hotelId)
                 .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with id: " + hotelId));
+        dashboardSnapshot.hotelStatusChanged(hotel.getStatus(), HotelStatus.REJECTED);
         hotel.setStatus(HotelStatus.REJECTED);
-        return hotelRepository.save(hotel);
+        Hotel saved = hotelRepository.save(hotel);
+        AfterCommit.run(() -> hotelSearchIndex.index(saved));
+        return saved;
     }
 
+    @Transactional
     public Hotel setHotelPending(Long hotelId) {
         Hotel hotel = hotelRepository.findById(hotelId)
                 .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with id: " + hotelId));
+        dashboardSnapshot.hotelStatusChanged(hotel.getStatus(), HotelStatus.PENDING);
         hotel.setStatus(HotelStatus.PENDING);
-        return hotelRepository.save(hotel);
+        Hotel saved = hotelRepository.save(hotel);
+        AfterCommit.run(() -> hotelSearchIndex.index(saved));
+        return saved;
     }
 
+    @Transactional
     public void deleteHotel(Long hotelId) {
         Hotel hotel = hotelRepository.findById(hotelId)
                 .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with id: " + hotelId));
+        seasonalRateRepository.deleteByHotelId(hotelId);
+        hotelDailyStatsRepository.deleteByHotelId(hotelId);
         hotelRepository.delete(hotel);
+        dashboardSnapshot.hotelRemoved(hotel.getStatus());
+        AfterCommit.run(() -> hotelSearchIndex.remove(hotelId));
+        availabilityEngine.evict(hotelId);
+        pricingEngine.evict(hotelId);
+        recentReviews.evict(hotelId);
     }
 
     // ✅ Dashboard
     public Map<String, Object> getDashboardStats() {
-        long totalUsers = userRepository.count();
-        long totalHotels = hotelRepository.count();
-        long totalBookings = bookingRepository.countAllBookings();
-        Double totalRevenue = bookingRepository.sumTotalRevenue();
-
-        long approvedHotels = hotelRepository.findByStatus(HotelStatus.APPROVED).size();
-        long pendingHotels = hotelRepository.findByStatus(HotelStatus.PENDING).size();
-        long rejectedHotels = hotelRepository.findByStatus(HotelStatus.REJECTED).size();
-
-        return Map.of(
-                "totalUsers", totalUsers,
-                "totalHotels", totalHotels,
-                "approvedHotels", approvedHotels,
-                "pendingHotels", pendingHotels,
-                "rejectedHotels", rejectedHotels,
-                "totalBookings", totalBookings,
-                "totalRevenue", totalRevenue != null ? totalRevenue : 0.0
-        );
+        return dashboardSnapshot.get();
+    }
+
+    public Map<String, Object> getUserCacheStats() {
+        return userDetailsService.getCacheStats();
     }
 }
@@ -0,0 +1,100 @@
+package org.example.service;
+
+import org.example.entity.Booking;
+import org.example.enums.BookingStatus;
+import org.example.inventory.AvailabilityEngine;
+import org.example.repository.BookingRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Expires PENDING_PAYMENT bookings whose hold deadline has passed and gives their nights back to
+ * the inventory. A hold lasts the hold TTL from booking, and again from a declined payment.
+ * Holds are read in small batches through the (status, hold_expires_at) index and every
+ * booking is expired in its own short transaction, so a sweep never locks more than one row
+ * at a time and a payment racing the sweeper simply wins or loses the conditional update.
+ */
+@Service
+public class BookingExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingExpiryService.class);
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private AvailabilityEngine availabilityEngine;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${spring.app.bookingHoldMinutes:15}")
+    private long holdMinutes;
+
+    @Value("${spring.app.bookingSweepBatchSize:200}")
+    private int batchSize;
+
+    @Value("${spring.app.bookingSweepMaxBatches:50}")
+    private int maxBatches;
+
+    public LocalDateTime holdDeadline(LocalDateTime from) {
+        return from.plusMinutes(holdMinutes);
+    }
+
+    // Holds taken before they had a deadline get a full one once, instead of expiring on the next sweep
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillHoldDeadlines() {
+        Integer updated = transactionTemplate.execute(status -> bookingRepository.backfillHoldDeadlines(
+                BookingStatus.PENDING_PAYMENT, holdDeadline(LocalDateTime.now())));
+        if (updated != null && updated > 0) {
+            logger.info("Gave {} unpaid bookings a hold deadline", updated);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${spring.app.bookingSweepIntervalMs:60000}",
+            initialDelayString = "${spring.app.bookingSweepIntervalMs:60000}")
+    public void sweepExpiredHolds() {
+        int expired = expireHolds(LocalDateTime.now());
+        if (expired > 0) {
+            logger.info("Expired {} unpaid bookings", expired);
+        }
+    }
+
+    // Anything left after maxBatches is picked up by the next run
+    public int expireHolds(LocalDateTime now) {
+        int expired = 0;
+        for (int batchNo = 0; batchNo < maxBatches; batchNo++) {
+            List<Booking> batch = bookingRepository.findHoldsExpiredBefore(
+                    BookingStatus.PENDING_PAYMENT, now, Limit.of(batchSize));
+            for (Booking booking : batch) {
+                if (Boolean.TRUE.equals(transactionTemplate.execute(status -> expire(booking)))) {
+                    expired++;
+                }
+            }
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        return expired;
+    }
+
+    private boolean expire(Booking booking) {
+        if (bookingRepository.updateStatus(booking.getId(), BookingStatus.PENDING_PAYMENT, BookingStatus.EXPIRED) == 0) {
+            return false;
+        }
+        availabilityEngine.release(booking.getHotel().getId(), booking.getRoomType(),
+                booking.getCheckin(), booking.getCheckout(), 1);
+        return true;
+    }
+}
@@ -1,55 +1,222 @@
 package org.example.service;
 
+import org.example.dashboard.DashboardSnapshot;
 import org.example.dto.Request.BookingRequest;
+import org.example.dto.Request.BulkBookingRequest;
 import org.example.dto.Response.BookingResponse;
+import org.example.dto.Response.BulkBookingResponse;
+import org.example.dto.Response.CursorPageResponse;
 import org.example.entity.Booking;
 import org.example.entity.Hotel;
+import org.example.enums.BookingStatus;
 import org.example.enums.RoomType;
 import org.example.exceptions.ResourceNotFoundException;
+import org.example.inventory.AvailabilityEngine;
+import org.example.pagination.CursorPages;
+import org.example.pagination.PageCursor;
+import org.example.pricing.PriceQuote;
+import org.example.pricing.PricingEngine;
 import org.example.repository.BookingRepository;
 import org.example.repository.HotelRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 public class BookingService {
 
+    public static final int MAX_BULK_BOOKINGS = 100;
+
+    private static final String BOOKING_SEQUENCE = "bookings";
+
     @Autowired
     private BookingRepository bookingRepository;
 
     @Autowired
     private HotelRepository hotelRepository;
 
+    @Autowired
+    private AvailabilityEngine availabilityEngine;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private IdBlockAllocator idBlockAllocator;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private DashboardSnapshot dashboardSnapshot;
+
+    @Autowired
+    private BookingExpiryService bookingExpiryService;
+
     public BookingResponse createBooking(BookingRequest request, String userEmail) {
         Long hotelId = Long.parseLong(request.getHotelId());
         Hotel hotel = hotelRepository.findById(hotelId)
                 .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with id: " + request.getHotelId()));
 
         RoomType roomType = RoomType.valueOf(request.getRoomType().toUpperCase());
+        LocalDate checkin = LocalDate.parse(request.getCheckin());
+        LocalDate checkout = LocalDate.parse(request.getCheckout());
+
+        Booking booking = newBooking(hotel, userEmail, roomType, checkin, checkout);
+        booking.setId(allocateIds(1).get(0));
+
+        // Claim the nights in memory first so a full hotel is rejected without touching the database
+        availabilityEngine.hold(hotelId, roomType, checkin, checkout, 1);
+
+        try {
+            return transactionTemplate.execute(status -> {
+                availabilityEngine.confirm(hotelId, roomType, checkin, checkout, 1);
+
+                Booking savedBooking = bookingRepository.save(booking);
+                dashboardSnapshot.bookingsCreated(1);
+                return new BookingResponse(savedBooking);
+            });
+        } catch (RuntimeException e) {
+            availabilityEngine.dropHold(hotelId, roomType, checkin, checkout, 1);
+            throw e;
+        }
+    }
+
+    /**
+     * Books every item or none. All items are validated before anything is reserved and the
+     * bookings are written as one JDBC batch.
+     */
+    public BulkBookingResponse createBookings(BulkBookingRequest request, String userEmail) {
+        List<BookingRequest> items = request.getBookings();
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("At least one booking is required");
+        }
+        if (items.size() > MAX_BULK_BOOKINGS) {
+            throw new IllegalArgumentException("At most " + MAX_BULK_BOOKINGS + " bookings can be created at once");
+        }
+
+        Set<Long> hotelIds = new HashSet<>();
+        for (int i = 0; i < items.size(); i++) {
+            hotelIds.add(parseHotelId(items.get(i), i));
+        }
+        Map<Long, Hotel> hotels = hotelRepository.findAllById(hotelIds).stream()
+                .collect(Collectors.toMap(Hotel::getId, Function.identity()));
+
+        List<Booking> planned = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            BookingRequest item = items.get(i);
+            Hotel hotel = hotels.get(Long.parseLong(item.getHotelId()));
+            if (hotel == null) {
+                throw new ResourceNotFoundException("Booking " + (i + 1) + ": hotel not found with id: " + item.getHotelId());
+            }
+            try {
+                RoomType roomType = RoomType.valueOf(item.getRoomType().toUpperCase());
+                LocalDate checkin = LocalDate.parse(item.getCheckin());
+                LocalDate checkout = LocalDate.parse(item.getCheckout());
+                availabilityEngine.validateStay(checkin, checkout);
+                planned.add(newBooking(hotel, userEmail, roomType, checkin, checkout));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Booking " + (i + 1) + ": " + e.getMessage(), e);
+            }
+        }
+
+        List<Long> bookingIds = allocateIds(planned.size());
+        for (int i = 0; i < planned.size(); i++) {
+            planned.get(i).setId(bookingIds.get(i));
+        }
+
+        // Identical stays are reserved together, in a fixed order so concurrent bulk requests lock ledger rows alike
+        Map<Stay, Integer> stays = new TreeMap<>(Stay.ORDER);
+        for (Booking booking : planned) {
+            stays.merge(Stay.of(booking), 1, Integer::sum);
+        }
+
+        Map<Stay, Integer> held = new LinkedHashMap<>();
+        try {
+            stays.forEach((stay, rooms) -> {
+                availabilityEngine.hold(stay.hotelId(), stay.roomType(), stay.checkin(), stay.checkout(), rooms);
+                held.put(stay, rooms);
+            });
+
+            List<Booking> saved = transactionTemplate.execute(status -> {
+                stays.forEach((stay, rooms) -> availabilityEngine.confirm(
+                        stay.hotelId(), stay.roomType(), stay.checkin(), stay.checkout(), rooms));
+                dashboardSnapshot.bookingsCreated(planned.size());
+                return bookingRepository.saveAll(planned);
+            });
+
+            List<BookingResponse> bookings = saved.stream()
+                    .map(BookingResponse::new)
+                    .collect(Collectors.toList());
+            return new BulkBookingResponse(
+                    bookingIds.stream().map(String::valueOf).collect(Collectors.toList()), bookings);
+        } catch (RuntimeException e) {
+            held.forEach((stay, rooms) -> availabilityEngine.dropHold(
+                    stay.hotelId(), stay.roomType(), stay.checkin(), stay.checkout(), rooms));
+            throw e;
+        }
+    }
+
+    public CursorPageResponse<BookingResponse> getUserBookings(String userEmail, Integer limit, String after) {
+        int pageSize = CursorPages.pageSize(limit);
+        PageCursor cursor = PageCursor.decode(after);
+        List<Booking> bookings = bookingRepository.findUserPage(userEmail, BookingStatus.EXPIRED,
+                cursor.getCreatedAt(), cursor.getId(), CursorPages.fetchLimit(pageSize));
+        return CursorPages.page(bookings, pageSize, b -> new PageCursor(b.getCreatedAt(), b.getId()), BookingResponse::new);
+    }
+
+    // Taken before the booking transaction opens, see IdBlockAllocator
+    private List<Long> allocateIds(int count) {
+        return idBlockAllocator.allocate(BOOKING_SEQUENCE, count, bookingRepository::findMaxId);
+    }
 
-        Booking booking = Booking.builder()
+    private Long parseHotelId(BookingRequest item, int index) {
+        try {
+            return Long.parseLong(item.getHotelId());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Booking " + (index + 1) + ": invalid hotel id " + item.getHotelId());
+        }
+    }
+
+    // Nights and prices are derived server side rather than trusted from the request
+    private Booking newBooking(Hotel hotel, String userEmail, RoomType roomType, LocalDate checkin, LocalDate checkout) {
+        PriceQuote quote = pricingEngine.quote(hotel.getId(), roomType, checkin, checkout);
+        return Booking.builder()
                 .hotel(hotel)
                 .userEmail(userEmail)
+                .managerEmail(hotel.getManagerEmail())
                 .roomType(roomType)
-                .checkin(LocalDate.parse(request.getCheckin()))
-                .checkout(LocalDate.parse(request.getCheckout()))
-                .nights(request.getNights())
-                .pricePerNight(request.getPricePerNight())
-                .total(request.getTotal())
+                .checkin(checkin)
+                .checkout(checkout)
+                .nights((int) ChronoUnit.DAYS.between(checkin, checkout))
+                .pricePerNight(quote.getPricePerNight())
+                .total(quote.getTotal())
+                .holdExpiresAt(bookingExpiryService.holdDeadline(LocalDateTime.now()))
                 .build();
-
-        Booking savedBooking = bookingRepository.save(booking);
-        return new BookingResponse(savedBooking);
     }
 
-    public List<BookingResponse> getUserBookings(String userEmail) {
-        List<Booking> bookings = bookingRepository.findByUserEmail(userEmail);
-        return bookings.stream()
-                .map(BookingResponse::new)
-                .collect(Collectors.toList());
+    private record Stay(Long hotelId, RoomType roomType, LocalDate checkin, LocalDate checkout) {
+        static final Comparator<Stay> ORDER = Comparator.comparing(Stay::hotelId)
+                .thenComparing(Stay::roomType)
+                .thenComparing(Stay::checkin)
+                .thenComparing(Stay::checkout);
+
+        static Stay of(Booking booking) {
+            return new Stay(booking.getHotel().getId(), booking.getRoomType(), booking.getCheckin(), booking.getCheckout());
+        }
     }
-}
\ No newline at end of file
+}
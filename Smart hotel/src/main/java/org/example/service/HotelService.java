@@ -1,15 +1,35 @@
 package org.example.service;
 
+import org.example.dto.Request.HotelSearchRequest;
+import org.example.dto.Response.AvailabilityResponse;
+import org.example.dto.Response.CursorPageResponse;
 import org.example.dto.Response.HotelDetailResponse;
 import org.example.dto.Response.HotelSummaryResponse;
+import org.example.dto.Response.QuoteResponse;
 import org.example.entity.Hotel;
 import org.example.enums.RoomType;
 import org.example.exceptions.ResourceNotFoundException;
+import org.example.inventory.AvailabilityEngine;
+import org.example.pagination.CursorPages;
+import org.example.pricing.PriceQuote;
+import org.example.pricing.PricingEngine;
 import org.example.repository.HotelRepository;
+import org.example.search.HotelDocument;
+import org.example.search.HotelDocumentLoader;
+import org.example.search.HotelSearchCursor;
+import org.example.search.HotelSearchIndex;
+import org.example.search.HotelSort;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.Collection;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Service
@@ -18,15 +38,72 @@ public class HotelService {
     @Autowired
     private HotelRepository hotelRepository;
 
-    public List<HotelSummaryResponse> searchHotels(String location, String roomType) {
-        final RoomType parsedRoomType = parseRoomType(roomType);
+    @Autowired
+    private HotelSearchIndex hotelSearchIndex;
+
+    @Autowired
+    private HotelDocumentLoader hotelDocumentLoader;
+
+    @Autowired
+    private AvailabilityEngine availabilityEngine;
+
+    @Autowired
+    private PricingEngine pricingEngine;
 
-        List<Hotel> hotels = hotelRepository.searchHotels(location, parsedRoomType);
+    @Transactional(readOnly = true)
+    public CursorPageResponse<HotelSummaryResponse> searchHotels(HotelSearchRequest request) {
+        final RoomType parsedRoomType = parseRoomType(request.getRoomType());
+        HotelSort hotelSort = HotelSort.parse(request.getSort());
+        HotelSearchCursor after = HotelSearchCursor.decode(request.getCursor(), hotelSort);
+        int pageSize = CursorPages.pageSize(request.getLimit());
+        Predicate<HotelDocument> filter = availabilityFilter(request, parsedRoomType);
 
-        return hotels.stream()
-                .filter(hotel -> hotel.getStatus() == org.example.enums.HotelStatus.APPROVED) // Only return approved hotels
+        List<HotelDocument> hotels;
+        if (hotelSearchIndex.isReady()) {
+            hotels = hotelSearchIndex.search(request.getLocation(), parsedRoomType, hotelSort, after, pageSize, filter);
+        } else {
+            // Index is still building during startup, fall back to the database
+            hotels = HotelSearchIndex.page(
+                    hotelDocumentLoader.load(hotelRepository.searchHotels(request.getLocation(), parsedRoomType)),
+                    parsedRoomType, hotelSort, after, pageSize, filter);
+        }
+
+        String nextCursor = null;
+        if (hotels.size() > pageSize) {
+            hotels = hotels.subList(0, pageSize);
+            HotelDocument last = hotels.get(pageSize - 1);
+            nextCursor = new HotelSearchCursor(hotelSort, hotelSort.key(last, parsedRoomType), last.getId()).encode();
+        }
+
+        List<HotelSummaryResponse> items = hotels.stream()
                 .map(hotel -> new HotelSummaryResponse(hotel, parsedRoomType))
                 .collect(Collectors.toList());
+        return new CursorPageResponse<>(items, nextCursor);
+    }
+
+    // Dates narrow the results to hotels that can still sleep the party for every night of the stay
+    private Predicate<HotelDocument> availabilityFilter(HotelSearchRequest request, RoomType roomType) {
+        boolean hasCheckin = request.getCheckin() != null && !request.getCheckin().isEmpty();
+        boolean hasCheckout = request.getCheckout() != null && !request.getCheckout().isEmpty();
+        if (!hasCheckin && !hasCheckout) {
+            return hotel -> true;
+        }
+        if (!hasCheckin || !hasCheckout) {
+            throw new IllegalArgumentException("Both checkin and checkout are required to search by dates");
+        }
+        LocalDate checkin = LocalDate.parse(request.getCheckin());
+        LocalDate checkout = LocalDate.parse(request.getCheckout());
+        availabilityEngine.validateStay(checkin, checkout);
+        int guests = request.getGuests() == null ? 1 : request.getGuests();
+        if (guests < 1) {
+            throw new IllegalArgumentException("Guests must be at least 1");
+        }
+        // Only room types the hotel has are checked, so hotels without rooms never load counters
+        return hotel -> {
+            Collection<RoomType> types = roomType != null ? List.of(roomType) : hotel.getRoomPrices().keySet();
+            return hotel.hasRoomType(roomType) && !types.isEmpty()
+                    && availabilityEngine.hasRoom(hotel.getId(), types, checkin, checkout, guests);
+        };
     }
 
     private RoomType parseRoomType(String roomTypeString) {
@@ -46,4 +123,33 @@ public class HotelService {
 
         return new HotelDetailResponse(hotel);
     }
-}
\ No newline at end of file
+
+    public QuoteResponse getQuote(Long id, String roomType, String checkin, String checkout) {
+        RoomType type = parseRoomType(roomType);
+        if (type == null) {
+            throw new IllegalArgumentException("Invalid room type: " + roomType);
+        }
+        LocalDate from = LocalDate.parse(checkin);
+        LocalDate to = LocalDate.parse(checkout);
+
+        PriceQuote quote = pricingEngine.quote(id, type, from, to);
+        return new QuoteResponse(id.toString(), type.name().toLowerCase(), checkin, checkout,
+                quote.getNightlyRates().size(), quote.getNightlyRates(), quote.getPricePerNight(),
+                quote.getTotal(), quote.getRateVersion());
+    }
+
+    public AvailabilityResponse getAvailability(Long id, String checkin, String checkout) {
+        if (!hotelRepository.existsById(id)) {
+            throw new ResourceNotFoundException("Hotel not found with id: " + id);
+        }
+        LocalDate from = LocalDate.parse(checkin);
+        LocalDate to = LocalDate.parse(checkout);
+
+        Map<String, Integer> rooms = new LinkedHashMap<>();
+        availabilityEngine.availability(id, from, to)
+                .forEach((type, free) -> rooms.put(type.name().toLowerCase(), free));
+
+        return new AvailabilityResponse(id.toString(), checkin, checkout,
+                (int) ChronoUnit.DAYS.between(from, to), rooms);
+    }
+}
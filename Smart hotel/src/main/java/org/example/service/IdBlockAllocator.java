@@ -0,0 +1,71 @@
+package org.example.service;
+
+import org.example.entity.IdGenerator;
+import org.example.repository.IdGeneratorRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Hands out entity ids from blocks reserved in {@code id_generators}, so inserts can be batched
+ * (IDENTITY columns rule that out). Callers take their ids before opening the transaction that
+ * inserts the rows: a refill then runs in its own short transaction instead of borrowing a second
+ * pooled connection while row locks are held, which is what Hibernate's table generator does.
+ * The row of a sequence is created up front, so every refill locks it with SELECT ... FOR UPDATE
+ * and two nodes reserving the first block of a new sequence cannot both insert it.
+ */
+@Component
+public class IdBlockAllocator {
+
+    @Autowired
+    private IdGeneratorRepository idGeneratorRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Value("${spring.app.idBlockSize:50}")
+    private int blockSize;
+
+    private final Map<String, long[]> blocks = new HashMap<>();
+
+    /**
+     * Returns {@code count} unused ids for {@code sequence}. {@code highestUsedId} is consulted
+     * on every refill, so tables that used to be filled by IDENTITY continue after their last row.
+     */
+    public synchronized List<Long> allocate(String sequence, int count, LongSupplier highestUsedId) {
+        List<Long> ids = new ArrayList<>(count);
+        long[] block = blocks.get(sequence);
+        if (block == null) {
+            // Committed on its own, so the refill below always finds a row to lock
+            transactionTemplate.executeWithoutResult(status -> idGeneratorRepository.insertIfAbsent(sequence));
+            block = new long[]{0, 0};
+            blocks.put(sequence, block);
+        }
+        while (ids.size() < count) {
+            if (block[0] >= block[1]) {
+                long size = Math.max(blockSize, count - ids.size());
+                long start = transactionTemplate.execute(status -> reserve(sequence, size, highestUsedId));
+                block[0] = start;
+                block[1] = start + size;
+            }
+            ids.add(block[0]++);
+        }
+        return ids;
+    }
+
+    private long reserve(String sequence, long size, LongSupplier highestUsedId) {
+        IdGenerator generator = idGeneratorRepository.findForUpdate(sequence)
+                .orElseThrow(() -> new IllegalStateException("No id_generators row for " + sequence));
+        long start = Math.max(generator.getNextVal(), highestUsedId.getAsLong() + 1);
+        generator.setNextVal(start + size);
+        idGeneratorRepository.save(generator);
+        return start;
+    }
+}
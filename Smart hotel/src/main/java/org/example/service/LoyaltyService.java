@@ -8,21 +8,39 @@ import org.example.enums.LoyaltyHistoryType;
 import org.example.repository.LoyaltyHistoryRepository;
 import org.example.repository.LoyaltyRepository;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.stream.Collectors;
 
+/**
+ * Balances only ever change through single conditional UPDATEs, so concurrent payment and review
+ * rewards for the same user cannot lose each other's points and no row is read first. History
+ * entries are collected per transaction and written as one JDBC batch just before it commits.
+ */
 @Service
 public class LoyaltyService {
 
+    // Resolves the account by email inside the INSERT, so recording history never needs the loyalty id
+    private static final String INSERT_HISTORY = "INSERT INTO loyalty_history (loyalty_id, type, points, description, date) " +
+            "SELECT id, ?, ?, ?, ? FROM loyalty WHERE user_email = ?";
+
     @Autowired
     private LoyaltyRepository loyaltyRepository;
 
     @Autowired
     private LoyaltyHistoryRepository loyaltyHistoryRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     public Loyalty getUserLoyalty(String userEmail) {
         return loyaltyRepository.findByUserEmail(userEmail)
                 .orElseGet(() -> createLoyaltyAccount(userEmail));
@@ -35,6 +53,9 @@ public class LoyaltyService {
     }
 
     public List<LoyaltyHistoryResponse> getLoyaltyHistory(String userEmail) {
+        // Entries recorded earlier in the current transaction have to be visible to the query
+        flushHistory();
+
         // Use the query method that works with userEmail
         List<LoyaltyHistory> history = loyaltyHistoryRepository.findByUserEmailOrderByDateDesc(userEmail);
 
@@ -45,57 +66,49 @@ public class LoyaltyService {
 
     @Transactional
     public LoyaltyResponse redeemPointsResponse(String userEmail, Integer points) {
-        Loyalty loyalty = redeemPoints(userEmail, points);
+        redeemPoints(userEmail, points);
+        Loyalty loyalty = getUserLoyalty(userEmail);
         List<LoyaltyHistoryResponse> history = getLoyaltyHistory(userEmail);
         return new LoyaltyResponse(loyalty, history);
     }
 
     @Transactional
     public void awardPoints(String userEmail, Integer points, String description) {
-        Loyalty loyalty = getUserLoyalty(userEmail);
-
-        loyalty.setPoints(loyalty.getPoints() + points);
-        loyalty.setAvailable(loyalty.getAvailable() + points);
-        loyalty.setTotalEarned(loyalty.getTotalEarned() + points);
-
-        loyaltyRepository.save(loyalty);
-
-        LoyaltyHistory history = LoyaltyHistory.builder()
-                .loyalty(loyalty)
-                .type(LoyaltyHistoryType.EARNED)
-                .points(points)
-                .description(description)
-                .build();
-        loyaltyHistoryRepository.save(history);
+        LocalDateTime now = LocalDateTime.now();
+        if (loyaltyRepository.earn(userEmail, points, now) == 0) {
+            // First reward for this user
+            loyaltyRepository.insertIfAbsent(userEmail, now);
+            loyaltyRepository.earn(userEmail, points, now);
+        }
+        recordHistory(userEmail, LoyaltyHistoryType.EARNED, points, description, now);
     }
 
     @Transactional
-    public Loyalty redeemPoints(String userEmail, Integer points, String description) {
-        Loyalty loyalty = getUserLoyalty(userEmail);
-
-        if (loyalty.getAvailable() < points) {
-            throw new RuntimeException("Insufficient loyalty points. Available: " + loyalty.getAvailable() + ", Requested: " + points);
+    public void redeemPoints(String userEmail, Integer points, String description) {
+        if (points == null || points <= 0) {
+            throw new IllegalArgumentException("Points to redeem must be positive");
         }
+        LocalDateTime now = LocalDateTime.now();
+        if (loyaltyRepository.redeem(userEmail, points, now) == 0) {
+            // Only read back on failure, to tell the user what they actually have
+            int available = loyaltyRepository.findByUserEmail(userEmail).map(Loyalty::getAvailable).orElse(0);
+            throw new RuntimeException("Insufficient loyalty points. Available: " + available + ", Requested: " + points);
+        }
+        recordHistory(userEmail, LoyaltyHistoryType.REDEEMED, points, description, now);
+    }
 
-        loyalty.setAvailable(loyalty.getAvailable() - points);
-        loyalty.setTotalRedeemed(loyalty.getTotalRedeemed() + points);
-
-        loyaltyRepository.save(loyalty);
-
-        LoyaltyHistory history = LoyaltyHistory.builder()
-                .loyalty(loyalty)
-                .type(LoyaltyHistoryType.REDEEMED)
-                .points(points)
-                .description(description)
-                .build();
-        loyaltyHistoryRepository.save(history);
-
-        return loyalty;
+    @Transactional
+    public void redeemPoints(String userEmail, Integer points) {
+        redeemPoints(userEmail, points, "Points redemption");
     }
 
+    // Gives back points redeemed for a payment that was declined
     @Transactional
-    public Loyalty redeemPoints(String userEmail, Integer points) {
-        return redeemPoints(userEmail, points, "Points redemption");
+    public void restorePoints(String userEmail, Integer points, String description) {
+        LocalDateTime now = LocalDateTime.now();
+        if (loyaltyRepository.restore(userEmail, points, now) > 0) {
+            recordHistory(userEmail, LoyaltyHistoryType.EARNED, points, description, now);
+        }
     }
 
     private Loyalty createLoyaltyAccount(String userEmail) {
@@ -118,4 +131,37 @@ public class LoyaltyService {
 
         return pointsToUse.doubleValue();
     }
-}
\ No newline at end of file
+
+    private void recordHistory(String userEmail, LoyaltyHistoryType type, int points, String description,
+                               LocalDateTime date) {
+        PendingHistory pending = (PendingHistory) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new PendingHistory();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    flushHistory();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(LoyaltyService.this);
+                }
+            });
+        }
+        pending.rows.add(new Object[]{type.name(), points, description, Timestamp.valueOf(date), userEmail});
+    }
+
+    private void flushHistory() {
+        PendingHistory pending = (PendingHistory) TransactionSynchronizationManager.getResource(this);
+        if (pending != null && !pending.rows.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_HISTORY, pending.rows);
+            pending.rows.clear();
+        }
+    }
+
+    private static class PendingHistory {
+        private final List<Object[]> rows = new ArrayList<>();
+    }
+}
@@ -1,24 +1,43 @@
 package org.example.service;
 
+import org.example.analytics.Granularity;
+import org.example.analytics.HotelDailyRollup;
+import org.example.dashboard.DashboardSnapshot;
+import org.example.dto.Request.SeasonalRateRequest;
+import org.example.dto.Response.CursorPageResponse;
+import org.example.dto.Response.HotelAnalyticsResponse;
 import org.example.dto.Response.ManagerBookingResponse;
 import org.example.dto.Response.ManagerHotelResponse;
 import org.example.dto.Response.ManagerReviewResponse;
+import org.example.dto.Response.ReviewResponse;
 import org.example.entity.Booking;
 import org.example.entity.Hotel;
 import org.example.entity.Review;
 import org.example.entity.Room;
+import org.example.entity.SeasonalRate;
+import org.example.enums.BookingStatus;
 import org.example.enums.RoomType;
 import org.example.exceptions.ResourceNotFoundException;
+import org.example.pagination.CursorPages;
+import org.example.pagination.PageCursor;
+import org.example.pricing.PricingEngine;
 import org.example.repository.BookingRepository;
 import org.example.repository.HotelRepository;
 import org.example.repository.ReviewRepository;
 import org.example.repository.RoomRepository;
+import org.example.repository.SeasonalRateRepository;
+import org.example.review.RecentReviews;
+import org.example.search.HotelSearchIndex;
+import org.example.transaction.AfterCommit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
@@ -30,6 +49,9 @@ public class ManagerService {
 
     private static final Logger logger = LoggerFactory.getLogger(ManagerService.class);
 
+    private static final int DEFAULT_ANALYTICS_DAYS = 30;
+    private static final int MAX_ANALYTICS_DAYS = 366;
+
     @Autowired
     private HotelRepository hotelRepository;
 
@@ -42,6 +64,24 @@ public class ManagerService {
     @Autowired
     private ReviewRepository reviewRepository;
 
+    @Autowired
+    private SeasonalRateRepository seasonalRateRepository;
+
+    @Autowired
+    private HotelSearchIndex hotelSearchIndex;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private RecentReviews recentReviews;
+
+    @Autowired
+    private DashboardSnapshot dashboardSnapshot;
+
+    @Autowired
+    private HotelDailyRollup hotelDailyRollup;
+
     @Transactional
     public ManagerHotelResponse addHotel(Map<String, Object> hotelData, String managerEmail) {
         try {
@@ -92,6 +132,7 @@ public class ManagerService {
                     .build();
 
             Hotel savedHotel = hotelRepository.save(hotel);
+            dashboardSnapshot.hotelAdded(savedHotel.getStatus());
 
             // Create rooms based on the provided data
             for (Map<String, Object> roomData : roomsData) {
@@ -113,9 +154,12 @@ public class ManagerService {
                         .available(available)
                         .build();
 
-                roomRepository.save(room);
+                savedHotel.getRooms().add(roomRepository.save(room));
             }
 
+            AfterCommit.run(() -> hotelSearchIndex.index(savedHotel));
+            pricingEngine.refresh(savedHotel.getId());
+
             logger.info("Hotel created successfully: {}", savedHotel.getId());
             return new ManagerHotelResponse(savedHotel);
 
@@ -125,6 +169,58 @@ public class ManagerService {
         }
     }
 
+    // Changes the nightly price of every room of a type; new quotes and bookings use it right away
+    @Transactional
+    public ManagerHotelResponse updateRoomPrice(Long hotelId, String roomType, Double price, String managerEmail) {
+        Hotel hotel = findOwnedHotel(hotelId, managerEmail);
+        RoomType type = parseRoomType(roomType);
+        if (price == null || price <= 0) {
+            throw new IllegalArgumentException("Price must be greater than zero");
+        }
+
+        List<Room> rooms = hotel.getRooms().stream()
+                .filter(room -> room.getType() == type)
+                .collect(Collectors.toList());
+        if (rooms.isEmpty()) {
+            throw new ResourceNotFoundException("Hotel " + hotelId + " has no " + roomType + " rooms");
+        }
+        rooms.forEach(room -> room.setPrice(price));
+        roomRepository.saveAll(rooms);
+
+        AfterCommit.run(() -> hotelSearchIndex.index(hotel));
+        pricingEngine.refresh(hotelId);
+        logger.info("Manager {} set {} price of hotel {} to {}", managerEmail, type, hotelId, price);
+        return new ManagerHotelResponse(hotel);
+    }
+
+    @Transactional
+    public SeasonalRate addSeasonalRate(Long hotelId, SeasonalRateRequest request, String managerEmail) {
+        Hotel hotel = findOwnedHotel(hotelId, managerEmail);
+        RoomType type = parseRoomType(request.getRoomType());
+        LocalDate startDate = LocalDate.parse(request.getStartDate());
+        LocalDate endDate = LocalDate.parse(request.getEndDate());
+        if (!endDate.isAfter(startDate)) {
+            throw new IllegalArgumentException("End date must be after start date");
+        }
+        if (request.getPrice() == null || request.getPrice() <= 0) {
+            throw new IllegalArgumentException("Price must be greater than zero");
+        }
+        // Seasons of one room type never overlap, so each night has at most one override
+        if (seasonalRateRepository.existsOverlapping(hotelId, type, startDate, endDate)) {
+            throw new IllegalArgumentException("Seasonal rate overlaps an existing one for " + request.getRoomType());
+        }
+
+        SeasonalRate rate = seasonalRateRepository.save(SeasonalRate.builder()
+                .hotel(hotel)
+                .roomType(type)
+                .startDate(startDate)
+                .endDate(endDate)
+                .price(request.getPrice())
+                .build());
+        pricingEngine.refresh(hotelId);
+        return rate;
+    }
+
     public List<ManagerHotelResponse> getManagerHotels(String managerEmail) {
         List<Hotel> hotels = hotelRepository.findByManagerEmail(managerEmail);
         return hotels.stream()
@@ -132,19 +228,54 @@ public class ManagerService {
                 .collect(Collectors.toList());
     }
 
-    public List<ManagerBookingResponse> getManagerBookings(String managerEmail) {
-        List<Booking> bookings = bookingRepository.findByManagerEmail(managerEmail);
-        return bookings.stream()
-                .map(ManagerBookingResponse::new)
-                .collect(Collectors.toList());
+    public CursorPageResponse<ManagerBookingResponse> getManagerBookings(String managerEmail, Integer limit, String after) {
+        int pageSize = CursorPages.pageSize(limit);
+        PageCursor cursor = PageCursor.decode(after);
+        List<Booking> bookings = bookingRepository.findManagerPage(managerEmail, BookingStatus.EXPIRED,
+                cursor.getCreatedAt(), cursor.getId(), CursorPages.fetchLimit(pageSize));
+        return CursorPages.page(bookings, pageSize, b -> new PageCursor(b.getCreatedAt(), b.getId()),
+                ManagerBookingResponse::new);
     }
 
-    public List<ManagerReviewResponse> getManagerReviews(String managerEmail) {
-        List<Review> reviews = reviewRepository.findByManagerEmail(managerEmail);
-        return reviews.stream()
-                .map(ManagerReviewResponse::new)
-                .collect(Collectors.toList());
+    // Revenue, nights sold, ADR and occupancy by stay date, for one owned hotel or all of them
+    public List<HotelAnalyticsResponse> getAnalytics(String managerEmail, Long hotelId, String from, String to,
+                                                     String granularity) {
+        LocalDate end = to != null ? LocalDate.parse(to) : LocalDate.now();
+        LocalDate start = from != null ? LocalDate.parse(from) : end.minusDays(DEFAULT_ANALYTICS_DAYS - 1);
+        if (end.isBefore(start)) {
+            throw new IllegalArgumentException("End date must not be before start date");
+        }
+        if (start.plusDays(MAX_ANALYTICS_DAYS).isBefore(end)) {
+            throw new IllegalArgumentException("Analytics cover at most " + MAX_ANALYTICS_DAYS + " days");
+        }
+        Granularity grouping = Granularity.parse(granularity);
+
+        List<Hotel> hotels = hotelId != null
+                ? List.of(findOwnedHotel(hotelId, managerEmail))
+                : hotelRepository.findByManagerEmail(managerEmail);
+        return hotelDailyRollup.report(hotels, start, end, grouping);
+    }
+
+    public CursorPageResponse<ManagerReviewResponse> getManagerReviews(String managerEmail, Integer limit, String after) {
+        int pageSize = CursorPages.pageSize(limit);
+        PageCursor cursor = PageCursor.decode(after);
+        List<Review> reviews = reviewRepository.findManagerPage(managerEmail, cursor.getCreatedAt(), cursor.getId(),
+                CursorPages.fetchLimit(pageSize));
+        return CursorPages.page(reviews, pageSize, r -> new PageCursor(r.getCreatedAt(), r.getId()),
+                ManagerReviewResponse::new);
     }
+
+    // Bookings and reviews from before the manager email was copied onto them get it once
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void backfillManagerEmails() {
+        int bookings = bookingRepository.backfillManagerEmails();
+        int reviews = reviewRepository.backfillManagerEmails();
+        if (bookings > 0 || reviews > 0) {
+            logger.info("Copied manager emails onto {} bookings and {} reviews", bookings, reviews);
+        }
+    }
+
     @Transactional
     public String replyToReview(Long reviewId, String managerEmail, String replyText) {
         try {
@@ -174,6 +305,7 @@ public class ManagerService {
 
             Review savedReview = reviewRepository.save(review);
             logger.info("Review saved successfully: {}", savedReview.getId());
+            recentReviews.recordAfterCommit(review.getHotel().getId(), new ReviewResponse(savedReview));
 
             // Verify the save worked
             Review verifiedReview = reviewRepository.findById(reviewId).orElse(null);
@@ -190,4 +322,21 @@ public class ManagerService {
             throw e;
         }
     }
-}
\ No newline at end of file
+
+    private Hotel findOwnedHotel(Long hotelId, String managerEmail) {
+        Hotel hotel = hotelRepository.findById(hotelId)
+                .orElseThrow(() -> new ResourceNotFoundException("Hotel not found with id: " + hotelId));
+        if (!hotel.getManagerEmail().equals(managerEmail)) {
+            throw new RuntimeException("Unauthorized to manage this hotel");
+        }
+        return hotel;
+    }
+
+    private RoomType parseRoomType(String roomType) {
+        try {
+            return RoomType.valueOf(roomType.toUpperCase());
+        } catch (IllegalArgumentException | NullPointerException e) {
+            throw new IllegalArgumentException("Invalid room type: " + roomType);
+        }
+    }
+}
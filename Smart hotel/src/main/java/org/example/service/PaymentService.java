@@ -1,12 +1,17 @@
 package org.example.service;
 
+import org.example.dto.Response.CursorPageResponse;
 import org.example.dto.Response.PaymentResponse;
 import org.example.entity.Booking;
 import org.example.entity.Payment;
 import org.example.enums.BookingStatus;
 import org.example.enums.PaymentMethod;
+import org.example.exceptions.BookingExpiredException;
 import org.example.exceptions.DuplicatePaymentException;
 import org.example.exceptions.ResourceNotFoundException;
+import org.example.pagination.CursorPages;
+import org.example.pagination.PageCursor;
+import org.example.payment.PaymentProcessor;
 import org.example.repository.BookingRepository;
 import org.example.repository.PaymentRepository;
 import org.slf4j.Logger;
@@ -18,7 +23,6 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 public class PaymentService {
@@ -34,44 +38,33 @@ public class PaymentService {
     @Autowired
     private LoyaltyService loyaltyService;
 
+    @Autowired
+    private PaymentProcessor paymentProcessor;
+
     @Transactional
     public PaymentResponse createPayment(Map<String, Object> paymentData, String userEmail) {
         try {
-            logger.info("Creating payment for user: {}, data: {}", userEmail, paymentData);
+            logger.debug("Creating payment for user: {}, booking: {}", userEmail, paymentData.get("bookingId"));
 
             // Validate required fields
-            if (!paymentData.containsKey("bookingId") || !paymentData.containsKey("amount")
-                    || !paymentData.containsKey("method")) {
-                throw new IllegalArgumentException("Missing required payment fields: bookingId, amount, and method are required");
+            if (!paymentData.containsKey("bookingId") || !paymentData.containsKey("method")) {
+                throw new IllegalArgumentException("Missing required payment fields: bookingId and method are required");
             }
 
             Long bookingId = Long.valueOf(paymentData.get("bookingId").toString());
-            Double originalAmount = Double.valueOf(paymentData.get("amount").toString());
             String method = paymentData.get("method").toString();
             String details = paymentData.getOrDefault("details", "").toString();
 
             // Check if loyalty points are being used
             Integer loyaltyPointsUsed = 0;
-            Double finalAmount = originalAmount;
-
             if (paymentData.containsKey("loyaltyPointsUsed") && paymentData.get("loyaltyPointsUsed") != null) {
                 try {
-                    loyaltyPointsUsed = Integer.valueOf(paymentData.get("loyaltyPointsUsed").toString());
-                    if (loyaltyPointsUsed > 0) {
-                        // Convert points to currency (assuming 1 point = 1 currency unit)
-                        Double pointsDiscount = loyaltyPointsUsed.doubleValue();
-                        finalAmount = Math.max(0, originalAmount - pointsDiscount);
-                        logger.info("Using {} loyalty points, discount: {}, final amount: {}",
-                                loyaltyPointsUsed, pointsDiscount, finalAmount);
-                    }
+                    loyaltyPointsUsed = Math.max(0, Integer.parseInt(paymentData.get("loyaltyPointsUsed").toString()));
                 } catch (NumberFormatException e) {
                     logger.warn("Invalid loyaltyPointsUsed value: {}", paymentData.get("loyaltyPointsUsed"));
                 }
             }
 
-            logger.debug("Parsed payment - bookingId: {}, original amount: {}, final amount: {}, method: '{}', loyalty points used: {}",
-                    bookingId, originalAmount, finalAmount, method, loyaltyPointsUsed);
-
             PaymentMethod paymentMethod = parsePaymentMethod(method);
 
             Booking booking = bookingRepository.findById(bookingId)
@@ -81,10 +74,20 @@ public class PaymentService {
                 throw new RuntimeException("Unauthorized to pay for this booking");
             }
 
-            // ✅ Prevent duplicate payment
-            if (paymentRepository.existsByBooking(booking)) {
-                throw new DuplicatePaymentException("Payment already exists for booking ID " + bookingId);
+            // The charge comes from the booking; an amount sent by the client is only checked against it
+            double total = booking.getTotal() != null ? booking.getTotal() : 0.0;
+            if (paymentData.get("amount") != null
+                    && Math.abs(Double.parseDouble(paymentData.get("amount").toString()) - total) > 0.005) {
+                throw new IllegalArgumentException("Payment amount does not match the booking total of " + total);
+            }
+            if (loyaltyPointsUsed > total) {
+                throw new IllegalArgumentException("Cannot use more loyalty points than the booking total of " + total);
             }
+            // Convert points to currency (assuming 1 point = 1 currency unit)
+            Double finalAmount = total - loyaltyPointsUsed;
+
+            logger.debug("Parsed payment - bookingId: {}, total: {}, final amount: {}, method: '{}', loyalty points used: {}",
+                    bookingId, total, finalAmount, method, loyaltyPointsUsed);
 
             Payment payment = Payment.builder()
                     .booking(booking)
@@ -92,24 +95,31 @@ public class PaymentService {
                     .amount(finalAmount) // Use final amount after loyalty discount
                     .method(paymentMethod)
                     .details(details)
+                    .loyaltyPointsUsed(loyaltyPointsUsed)
                     .build();
 
-            Payment savedPayment = paymentRepository.save(payment);
-
-            booking.setStatus(BookingStatus.PAID);
-            bookingRepository.save(booking);
-
-            // ✅ Award 50 loyalty points for every payment
-            int pointsEarned = 50;
-            loyaltyService.awardPoints(userEmail, pointsEarned, "Payment for booking #" + bookingId);
+            // Conditional so a hold the sweeper already expired, or a booking another request is already
+            // paying, can never be paid again; the status is only read back on the rare losing path.
+            // PAYMENT_PROCESSING also keeps the sweeper away while the gateway decides.
+            if (bookingRepository.updateStatus(bookingId, BookingStatus.PENDING_PAYMENT, BookingStatus.PAYMENT_PROCESSING) == 0) {
+                BookingStatus status = bookingRepository.findStatusById(bookingId);
+                if (status == BookingStatus.PAID || status == BookingStatus.PAYMENT_PROCESSING) {
+                    throw new DuplicatePaymentException("Payment already exists for booking ID " + bookingId);
+                }
+                throw new BookingExpiredException("Booking " + bookingId + " is no longer awaiting payment");
+            }
 
-            // ✅ Redeem loyalty points if any were used
+            // Redeemed up front so the same points cannot back two payments; a decline gives them back
             if (loyaltyPointsUsed > 0) {
                 loyaltyService.redeemPoints(userEmail, loyaltyPointsUsed, "Payment discount for booking #" + bookingId);
             }
 
-            logger.info("Payment created successfully: {}. Points earned: {}, Points used: {}",
-                    savedPayment.getId(), pointsEarned, loyaltyPointsUsed);
+            Payment savedPayment = paymentRepository.save(payment);
+
+            // Authorization and the points earned for it happen on the payment workers after commit
+            paymentProcessor.submitAfterCommit(savedPayment.getId());
+
+            logger.info("Payment {} accepted for booking {}", savedPayment.getId(), bookingId);
 
             // Return DTO instead of entity
             return new PaymentResponse(savedPayment);
@@ -120,11 +130,21 @@ public class PaymentService {
         }
     }
 
-    public List<PaymentResponse> getUserPayments(String userEmail) {
-        List<Payment> payments = paymentRepository.findByUserEmail(userEmail);
-        return payments.stream()
-                .map(PaymentResponse::new)
-                .collect(Collectors.toList());
+    public PaymentResponse getPayment(Long paymentId, String userEmail) {
+        Payment payment = paymentRepository.findById(paymentId)
+                .orElseThrow(() -> new ResourceNotFoundException("Payment not found with ID: " + paymentId));
+        if (!payment.getUserEmail().equals(userEmail)) {
+            throw new RuntimeException("Unauthorized to view this payment");
+        }
+        return new PaymentResponse(payment);
+    }
+
+    public CursorPageResponse<PaymentResponse> getUserPayments(String userEmail, Integer limit, String after) {
+        int pageSize = CursorPages.pageSize(limit);
+        PageCursor cursor = PageCursor.decode(after);
+        List<Payment> payments = paymentRepository.findUserPage(userEmail, cursor.getCreatedAt(), cursor.getId(),
+                CursorPages.fetchLimit(pageSize));
+        return CursorPages.page(payments, pageSize, p -> new PageCursor(p.getCreatedAt(), p.getId()), PaymentResponse::new);
     }
 
     private PaymentMethod parsePaymentMethod(String method) {
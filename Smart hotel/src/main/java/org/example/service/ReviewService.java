@@ -1,19 +1,25 @@
 package org.example.service;
 
+import org.example.dto.Response.CursorPageResponse;
 import org.example.dto.Response.ReviewResponse;
+import org.example.dto.Response.ReviewSummaryResponse;
 import org.example.entity.Booking;
 import org.example.entity.Hotel;
 import org.example.entity.Review;
 import org.example.exceptions.ResourceNotFoundException;
+import org.example.pagination.CursorPages;
+import org.example.pagination.PageCursor;
 import org.example.repository.BookingRepository;
 import org.example.repository.HotelRepository;
 import org.example.repository.ReviewRepository;
+import org.example.review.RecentReviews;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
@@ -35,10 +41,16 @@ public class ReviewService {
     @Autowired
     private LoyaltyService loyaltyService;
 
+    @Autowired
+    private HotelRatingService hotelRatingService;
+
+    @Autowired
+    private RecentReviews recentReviews;
+
     @Transactional
     public ReviewResponse addReview(Map<String, Object> reviewData, String userEmail) {
         try {
-            logger.info("Adding review for user: {}, data: {}", userEmail, reviewData);
+            logger.debug("Adding review for user: {}, booking: {}", userEmail, reviewData.get("bookingId"));
 
             // Validate required fields
             if (!reviewData.containsKey("bookingId") || !reviewData.containsKey("hotelId")
@@ -78,6 +90,7 @@ public class ReviewService {
                     .booking(booking)
                     .hotel(hotel)
                     .userEmail(userEmail)
+                    .managerEmail(hotel.getManagerEmail())
                     .rating(rating)
                     .comment(comment.trim())
                     .build();
@@ -88,10 +101,13 @@ public class ReviewService {
             loyaltyService.awardPoints(userEmail, 50, "Hotel review for " + hotel.getName());
 
             // Update hotel rating
-            updateHotelRating(hotel);
+            hotelRatingService.addRating(hotel.getId(), rating);
+
+            ReviewResponse response = new ReviewResponse(savedReview);
+            recentReviews.recordAfterCommit(hotel.getId(), response);
 
             logger.info("Review created successfully: {}", savedReview.getId());
-            return new ReviewResponse(savedReview);
+            return response;
 
         } catch (Exception e) {
             logger.error("Error adding review for user {}: {}", userEmail, e.getMessage(), e);
@@ -99,11 +115,12 @@ public class ReviewService {
         }
     }
 
-    public List<ReviewResponse> getUserReviews(String userEmail) {
-        List<Review> reviews = reviewRepository.findByUserEmail(userEmail);
-        return reviews.stream()
-                .map(ReviewResponse::new)
-                .collect(Collectors.toList());
+    public CursorPageResponse<ReviewResponse> getUserReviews(String userEmail, Integer limit, String after) {
+        int pageSize = CursorPages.pageSize(limit);
+        PageCursor cursor = PageCursor.decode(after);
+        List<Review> reviews = reviewRepository.findUserPage(userEmail, cursor.getCreatedAt(), cursor.getId(),
+                CursorPages.fetchLimit(pageSize));
+        return CursorPages.page(reviews, pageSize, r -> new PageCursor(r.getCreatedAt(), r.getId()), ReviewResponse::new);
     }
 
     public List<ReviewResponse> getHotelReviews(Long hotelId) {
@@ -113,18 +130,26 @@ public class ReviewService {
                 .collect(Collectors.toList());
     }
 
-
-
-    private void updateHotelRating(Hotel hotel) {
-        List<Review> reviews = reviewRepository.findByHotelId(hotel.getId());
-        if (!reviews.isEmpty()) {
-            double avgRating = reviews.stream()
-                    .mapToInt(Review::getRating)
-                    .average()
-                    .orElse(0.0);
-            hotel.setRating(Math.round(avgRating * 10.0) / 10.0); // Round to 1 decimal
-            hotelRepository.save(hotel);
-            logger.info("Updated hotel {} rating to: {}", hotel.getName(), hotel.getRating());
+    // Served from the hotel's maintained rating aggregates and its recent review ring, never the full review set
+    public ReviewSummaryResponse getReviewSummary(Long hotelId, Integer limit) {
+        List<Object[]> rows = hotelRepository.findRatingSummary(hotelId);
+        if (rows.isEmpty()) {
+            throw new ResourceNotFoundException("Hotel not found with ID: " + hotelId);
+        }
+        Object[] row = rows.get(0);
+        List<Integer> histogram = new ArrayList<>(5);
+        for (int i = 2; i < 7; i++) {
+            histogram.add(row[i] != null ? (Integer) row[i] : 0);
+        }
+        int recent = limit == null ? recentReviews.capacity() : limit;
+        if (recent < 0) {
+            throw new IllegalArgumentException("limit must not be negative");
         }
+        return new ReviewSummaryResponse(
+                hotelId.toString(),
+                row[0] != null ? (Integer) row[0] : 0,
+                row[1] != null ? (Double) row[1] : 0.0,
+                histogram,
+                recentReviews.latest(hotelId, recent));
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,95 @@
+package org.example.controller;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.example.logging.AccessLog;
+import org.example.logging.AccessLogFilter;
+import org.example.metrics.MetricsRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AccessLogFilterTest {
+
+    private static final String BODY = "{\"name\":\"H\u00f4tel\"}";
+
+    private final AccessLog accessLog = new AccessLog(16);
+
+    private final AccessLogFilter filter = new AccessLogFilter(accessLog, new MetricsRegistry());
+
+    private final Logger access = (Logger) LoggerFactory.getLogger("access");
+
+    private final ListAppender<ILoggingEvent> lines = new ListAppender<>();
+
+    @BeforeEach
+    void captureLines() {
+        lines.start();
+        access.addAppender(lines);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        access.detachAppender(lines);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void writesOneLinePerRequestWithTheRouteTemplate() throws Exception {
+        call("/api/test-rooms/42", "/api/test-rooms/{id}");
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "guest@example.com", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        call("/api/test-rooms/43", "/api/test-rooms/{id}");
+        call("/api/test-rooms", null);
+
+        // Stopping the writer flushes everything still queued
+        accessLog.shutdown();
+        int bytes = BODY.getBytes(StandardCharsets.UTF_8).length;
+        assertThat(lines()).satisfiesExactly(
+                line -> assertThat(line).startsWith("method=GET route=/api/test-rooms/{id} status=200 latency_us=")
+                        .endsWith(" bytes=" + bytes + " user=-"),
+                line -> assertThat(line).startsWith("method=GET route=/api/test-rooms/{id} status=200 latency_us=")
+                        .endsWith(" bytes=" + bytes + " user=guest@example.com"),
+                line -> assertThat(line).startsWith("method=GET route=/api/test-rooms status=200 "));
+        assertThat(accessLog.getStats()).containsEntry("written", 3L).containsEntry("dropped", 0L);
+    }
+
+    // The access logger is shared with the application context other tests leave running
+    private List<String> lines() {
+        return lines.list.stream().map(ILoggingEvent::getFormattedMessage)
+                .filter(line -> line.contains(" route=/api/test-rooms")).toList();
+    }
+
+    private void call(String path, String pattern) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        HttpServlet handler = new HttpServlet() {
+            @Override
+            protected void doGet(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                if (pattern != null) {
+                    req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, pattern);
+                }
+                resp.setCharacterEncoding("UTF-8");
+                resp.getWriter().write(BODY);
+            }
+        };
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain(handler));
+    }
+}
@@ -0,0 +1,147 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.example.entity.Hotel;
+import org.example.enums.HotelStatus;
+import org.example.repository.HotelRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@WithMockUser(roles = "ADMIN")
+class AdminControllerTest {
+
+    private static final int HOTELS = 1200;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void seedHotels() {
+        List<Hotel> hotels = new ArrayList<>();
+        hotels.add(hotel("Sea View, \"Deluxe\"", "=HYPERLINK(\"x\")"));
+        for (int i = 1; i < HOTELS; i++) {
+            hotels.add(hotel("Export Hotel " + i, "Kochi"));
+        }
+        hotelRepository.saveAll(hotels);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        hotelRepository.deleteAll();
+    }
+
+    @Test
+    void exportsStreamEveryRowAsCsvAndNdjson() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/admin/export/hotels"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csv = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("text/csv"))
+                .andExpect(header().string("Content-Disposition", containsString(".csv")))
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String[] lines = csv.split("\r\n");
+        assertThat(lines).hasSize(HOTELS + 1);
+        assertThat(lines[0]).isEqualTo("id,name,location,status,managerEmail,rating,ratingCount,createdAt");
+        // Quoted per RFC 4180 and defused as a spreadsheet formula
+        assertThat(lines[1]).contains(",\"Sea View, \"\"Deluxe\"\"\",\"'=HYPERLINK(\"\"x\"\")\",APPROVED,");
+
+        started = mockMvc.perform(get("/api/admin/export/hotels").param("format", "ndjson"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String ndjson = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+        String[] objects = ndjson.split("\n");
+        assertThat(objects).hasSize(HOTELS);
+        JsonNode first = objectMapper.readTree(objects[0]);
+        assertThat(first.get("name").asText()).isEqualTo("Sea View, \"Deluxe\"");
+        assertThat(first.get("id").isNumber()).isTrue();
+        assertThat(first.get("status").asText()).isEqualTo("APPROVED");
+
+        mockMvc.perform(get("/api/admin/export/passwords")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void csvQuotesSeparatorsAndDefusesFormulas() throws Exception {
+        // Comma, quote and a leading "=" in one field, and a formula prefix in a field with nothing to quote
+        Hotel tricky = hotelRepository.save(hotel("=1+2, \"cheap\"", "+91 Beach Road"));
+        MvcResult started = mockMvc.perform(get("/api/admin/export/hotels"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String csv = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString(StandardCharsets.UTF_8);
+
+        String line = Arrays.stream(csv.split("\r\n"))
+                .filter(row -> row.startsWith(tricky.getId() + ","))
+                .findFirst().orElseThrow();
+        assertThat(line).startsWith(tricky.getId() + ",\"'=1+2, \"\"cheap\"\"\",'+91 Beach Road,APPROVED,manager@example.com,");
+    }
+
+    @Test
+    void metricsReportLatencyAndStatementsPerRouteAndServiceMethod() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/admin/hotels").param("limit", "10")).andExpect(status().isOk());
+        }
+        mockMvc.perform(get("/api/admin/hotels").param("after", "not-a-cursor")).andExpect(status().isBadRequest());
+
+        JsonNode metrics = objectMapper.readTree(mockMvc.perform(get("/api/admin/metrics"))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        JsonNode route = metrics.get("routes").get("GET /api/admin/hotels");
+        assertThat(route.get("count").asLong()).isGreaterThanOrEqualTo(4);
+        assertThat(route.get("clientErrors").asLong()).isGreaterThanOrEqualTo(1);
+        assertThat(route.get("statements").asLong()).isGreaterThanOrEqualTo(3);
+        assertThat(route.get("p50Micros").asLong()).isPositive()
+                .isLessThanOrEqualTo(route.get("p99Micros").asLong());
+        assertThat(route.get("p99Micros").asLong()).isLessThanOrEqualTo(route.get("maxMicros").asLong());
+
+        JsonNode service = metrics.get("services").get("AdminService.getAllHotels");
+        assertThat(service.get("count").asLong()).isGreaterThanOrEqualTo(4);
+        assertThat(service.get("errors").asLong()).isGreaterThanOrEqualTo(1);
+        assertThat(service.get("statementsPerCall").asDouble()).isGreaterThan(0);
+        assertThat(metrics.has("userCache")).isTrue();
+        assertThat(metrics.get("passwordHashing").has("rejected")).isTrue();
+    }
+
+    private static Hotel hotel(String name, String location) {
+        return Hotel.builder()
+                .name(name)
+                .location(location)
+                .managerEmail("manager@example.com")
+                .status(HotelStatus.APPROVED)
+                .build();
+    }
+}
@@ -0,0 +1,197 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.entity.User;
+import org.example.enums.Roles;
+import org.example.exceptions.PasswordHashingBusyException;
+import org.example.repository.RefreshTokenRepository;
+import org.example.repository.UserRepository;
+import org.example.security.BoundedPasswordEncoder;
+import org.example.service.AdminService;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class AuthControllerTest {
+
+    private static final String PASSWORD = "s3cret-pass";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @AfterEach
+    void cleanUp() {
+        refreshTokenRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void authenticatedRequestsDoNotReadTheUser() throws Exception {
+        String admin = login(user("admin@example.com", Roles.ROLE_ADMIN));
+        String guest = login(user("guest@example.com", Roles.ROLE_USER));
+        mockMvc.perform(get("/api/admin/dashboard").header("Authorization", "Bearer " + admin))
+                .andExpect(status().isOk());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        for (int i = 0; i < 5; i++) {
+            mockMvc.perform(get("/api/admin/dashboard").header("Authorization", "Bearer " + admin))
+                    .andExpect(status().isOk());
+        }
+        // The dashboard is served from memory, so every statement here would have come from authentication
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        // The role comes from the cached principal, and a token signed for someone else is rejected
+        mockMvc.perform(get("/api/admin/dashboard").header("Authorization", "Bearer " + guest))
+                .andExpect(status().isForbidden());
+        String forged = admin.substring(0, admin.lastIndexOf('.')) + guest.substring(guest.lastIndexOf('.'));
+        mockMvc.perform(get("/api/admin/dashboard").header("Authorization", "Bearer " + forged))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void roleChangesAndDeletionsApplyToIssuedTokens() throws Exception {
+        User admin = user("boss@example.com", Roles.ROLE_ADMIN);
+        String token = login(admin);
+        mockMvc.perform(get("/api/admin/dashboard").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        long hits = (Long) adminService.getUserCacheStats().get("hits");
+        mockMvc.perform(get("/api/admin/user-cache").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+        assertThat((Long) adminService.getUserCacheStats().get("hits")).isEqualTo(hits + 1);
+
+        adminService.updateUserRole(admin.getId(), "ROLE_USER");
+        mockMvc.perform(get("/api/admin/dashboard").header("Authorization", "Bearer " + token))
+                .andExpect(status().isForbidden());
+
+        adminService.deleteUser(admin.getId());
+        mockMvc.perform(get("/api/admin/dashboard").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void refreshTokensRotateAndAreSingleUse() throws Exception {
+        User user = user("traveller@example.com", Roles.ROLE_USER);
+        JsonNode session = objectMapper.readTree(loginResponse(user));
+        String first = session.get("refreshToken").asText();
+        assertThat(refreshTokenRepository.findAll()).allSatisfy(token -> assertThat(token.getTokenHash()).isNotEqualTo(first));
+
+        JsonNode renewed = objectMapper.readTree(refresh(first).andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString());
+        String second = renewed.get("refreshToken").asText();
+        assertThat(second).isNotEqualTo(first);
+        assertThat(renewed.get("roles").get(0).asText()).isEqualTo("ROLE_USER");
+        mockMvc.perform(get("/api/admin/dashboard").header("Authorization", "Bearer " + renewed.get("jwtToken").asText()))
+                .andExpect(status().isForbidden());
+
+        // Replaying a rotated token revokes the whole session, including its successor
+        refresh(first).andExpect(status().isUnauthorized());
+        refresh(second).andExpect(status().isUnauthorized());
+
+        String third = objectMapper.readTree(loginResponse(user)).get("refreshToken").asText();
+        mockMvc.perform(post("/api/auth/logout").contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("refreshToken", third))))
+                .andExpect(status().isNoContent());
+        refresh(third).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void weakerHashesAreUpgradedOnLogin() throws Exception {
+        User user = userRepository.save(User.builder()
+                .email("legacy@example.com")
+                .name("Auth Test")
+                .password(new BCryptPasswordEncoder(4).encode(PASSWORD))
+                .role(Roles.ROLE_USER)
+                .build());
+        login(user);
+
+        String upgraded = userRepository.findByEmail(user.getEmail()).orElseThrow().getPassword();
+        assertThat(upgraded).startsWith("$2a$10$");
+        assertThat(passwordEncoder.matches(PASSWORD, upgraded)).isTrue();
+        login(user);
+    }
+
+    @Test
+    void saturatedHashingFailsFast() throws Exception {
+        BoundedPasswordEncoder encoder = new BoundedPasswordEncoder(14, 1, 1);
+        try {
+            CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode(PASSWORD));
+            CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode(PASSWORD));
+            while (encoder.getActive() + encoder.getQueued() < 2) {
+                Thread.sleep(5);
+            }
+            assertThatThrownBy(() -> encoder.encode(PASSWORD)).isInstanceOf(PasswordHashingBusyException.class);
+            assertThat(encoder.getRejected()).isEqualTo(1);
+            assertThat(queued.get()).startsWith("$2a$14$");
+            assertThat(encoder.matches(PASSWORD, running.get())).isTrue();
+        } finally {
+            encoder.shutdown();
+        }
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/api/auth/refresh").contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(Map.of("refreshToken", refreshToken))));
+    }
+
+    private User user(String email, Roles role) {
+        return userRepository.save(User.builder()
+                .email(email)
+                .name("Auth Test")
+                .password(passwordEncoder.encode(PASSWORD))
+                .role(role)
+                .build());
+    }
+
+    private String login(User user) throws Exception {
+        return objectMapper.readTree(loginResponse(user)).get("jwtToken").asText();
+    }
+
+    private String loginResponse(User user) throws Exception {
+        return mockMvc.perform(post("/api/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(Map.of("email", user.getEmail(), "password", PASSWORD))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+    }
+}
@@ -0,0 +1,271 @@
+package org.example.controller;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.example.entity.Booking;
+import org.example.entity.Hotel;
+import org.example.entity.Room;
+import org.example.entity.SeasonalRate;
+import org.example.enums.HotelStatus;
+import org.example.enums.RoomType;
+import org.example.inventory.AvailabilityEngine;
+import org.example.pricing.PricingEngine;
+import org.example.repository.BookingRepository;
+import org.example.repository.HotelRepository;
+import org.example.repository.RoomRepository;
+import org.example.repository.SeasonalRateRepository;
+import org.example.search.HotelSearchIndex;
+import org.example.search.HotelSort;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.reset;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class HotelControllerTest {
+
+    private static final int HOTELS = 40;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private AvailabilityEngine availabilityEngine;
+
+    @Autowired
+    private SeasonalRateRepository seasonalRateRepository;
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoSpyBean
+    private HotelSearchIndex hotelSearchIndex;
+
+    private Statistics statistics;
+
+    @BeforeEach
+    void seedHotels() {
+        reset(hotelSearchIndex);
+        bookingRepository.deleteAll();
+        seasonalRateRepository.deleteAll();
+        roomRepository.deleteAll();
+        hotelRepository.deleteAll();
+        for (int i = 0; i < HOTELS; i++) {
+            Hotel hotel = hotelRepository.save(Hotel.builder()
+                    .name("Hotel " + i)
+                    .location(i % 2 == 0 ? "New Delhi" : "Mumbai")
+                    .images(List.of("img-" + i + "-cover.jpg", "img-" + i + "-a.jpg"))
+                    .amenities(List.of("WiFi", "Pool", "Parking"))
+                    .managerEmail("manager@example.com")
+                    .status(HotelStatus.APPROVED)
+                    .build());
+            for (RoomType type : RoomType.values()) {
+                roomRepository.save(Room.builder()
+                        .hotel(hotel)
+                        .type(type)
+                        .price(100.0 + type.ordinal() * 50)
+                        .available(5)
+                        .build());
+            }
+        }
+        hotelSearchIndex.rebuild();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @Test
+    void searchServedFromIndexIssuesNoStatements() throws Exception {
+        mockMvc.perform(get("/api/hotels").param("location", "delhi").param("roomType", "suite")
+                        .param("sort", "price").param("limit", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(HOTELS / 2))
+                .andExpect(jsonPath("$.items[0].image").value("img-0-cover.jpg"))
+                .andExpect(jsonPath("$.items[0].price").value(200.0));
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void dateSearchSkipsHotelsWithoutRoomForTheParty() throws Exception {
+        List<Hotel> delhi = hotelRepository.findAll().stream()
+                .filter(hotel -> hotel.getLocation().equals("New Delhi"))
+                .toList();
+        LocalDate checkin = LocalDate.now().plusDays(5);
+        bookSuites(delhi.get(0), checkin, 5);
+        bookSuites(delhi.get(1), checkin, 3);
+        // A hotel that has no rooms yet is indexed but has nothing to count
+        hotelSearchIndex.index(hotelRepository.save(Hotel.builder()
+                .name("Hotel Empty")
+                .location("New Delhi")
+                .managerEmail("manager@example.com")
+                .status(HotelStatus.APPROVED)
+                .build()));
+        availabilityEngine.warmUp();
+        statistics.clear();
+
+        String checkout = checkin.plusDays(2).toString();
+        MvcResult result = mockMvc.perform(get("/api/hotels").param("location", "delhi").param("roomType", "suite")
+                        .param("checkin", checkin.plusDays(1).toString()).param("checkout", checkout)
+                        .param("limit", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(HOTELS / 2 - 1))
+                .andReturn();
+        assertThat(objectMapper.readTree(result.getResponse().getContentAsString()).findValuesAsText("id"))
+                .doesNotContain(delhi.get(0).getId().toString());
+
+        // Nine guests need three suites, which the second hotel no longer has
+        mockMvc.perform(get("/api/hotels").param("location", "delhi").param("roomType", "suite")
+                        .param("checkin", checkin.toString()).param("checkout", checkout)
+                        .param("guests", "9").param("limit", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(HOTELS / 2 - 2));
+
+        mockMvc.perform(get("/api/hotels").param("location", "delhi")
+                        .param("checkin", checkin.toString()).param("checkout", checkout)
+                        .param("limit", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(HOTELS / 2));
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        mockMvc.perform(get("/api/hotels").param("checkin", checkin.toString()))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void quoteAppliesSeasonalRatesFromMemory() throws Exception {
+        Hotel hotel = hotelRepository.findAll().get(0);
+        LocalDate checkin = LocalDate.now().plusDays(10);
+        seasonalRateRepository.save(SeasonalRate.builder()
+                .hotel(hotel)
+                .roomType(RoomType.SUITE)
+                .startDate(checkin.plusDays(1))
+                .endDate(checkin.plusDays(3))
+                .price(350.0)
+                .build());
+        pricingEngine.warmUp();
+        statistics.clear();
+
+        mockMvc.perform(get("/api/hotels/" + hotel.getId() + "/quote").param("roomType", "suite")
+                        .param("checkin", checkin.toString()).param("checkout", checkin.plusDays(4).toString()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nights").value(4))
+                .andExpect(jsonPath("$.nightlyRates[0]").value(200.0))
+                .andExpect(jsonPath("$.nightlyRates[1]").value(350.0))
+                .andExpect(jsonPath("$.nightlyRates[3]").value(200.0))
+                .andExpect(jsonPath("$.total").value(1100.0))
+                .andExpect(jsonPath("$.pricePerNight").value(275.0));
+
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    @Test
+    void databaseFallbackUsesConstantStatementsWithoutDuplicates() throws Exception {
+        doReturn(false).when(hotelSearchIndex).isReady();
+
+        mockMvc.perform(get("/api/hotels").param("limit", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(HOTELS))
+                .andExpect(jsonPath("$.items[0].amenities.length()").value(3));
+
+        // hotels, images, amenities and room prices regardless of how many hotels match
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+
+        statistics.clear();
+        mockMvc.perform(get("/api/hotels").param("roomType", "deluxe").param("limit", "100"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.items.length()").value(HOTELS))
+                .andExpect(jsonPath("$.items[0].price").value(150.0));
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+    }
+
+    @Test
+    void cursorWalksEveryHotelOnceInSortOrder() throws Exception {
+        for (HotelSort sort : HotelSort.values()) {
+            for (String location : new String[]{"", "mumbai"}) {
+                List<Long> seen = new ArrayList<>();
+                String cursor = null;
+                do {
+                    MvcResult result = mockMvc.perform(get("/api/hotels")
+                                    .param("location", location)
+                                    .param("sort", sort.name().toLowerCase())
+                                    .param("limit", "7")
+                                    .param("cursor", cursor == null ? "" : cursor))
+                            .andExpect(status().isOk())
+                            .andReturn();
+                    JsonNode page = objectMapper.readTree(result.getResponse().getContentAsString());
+                    assertThat(page.get("items").size()).isLessThanOrEqualTo(7);
+                    page.get("items").forEach(item -> seen.add(item.get("id").asLong()));
+                    cursor = page.get("nextCursor").isNull() ? null : page.get("nextCursor").asText();
+                } while (cursor != null);
+
+                assertThat(seen).doesNotHaveDuplicates()
+                        .hasSize(location.isEmpty() ? HOTELS : HOTELS / 2);
+            }
+        }
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+    }
+
+    private void bookSuites(Hotel hotel, LocalDate checkin, int rooms) {
+        for (int i = 0; i < rooms; i++) {
+            bookingRepository.save(Booking.builder()
+                    .id(hotel.getId() * 100 + i)
+                    .hotel(hotel)
+                    .userEmail("guest@example.com")
+                    .roomType(RoomType.SUITE)
+                    .checkin(checkin)
+                    .checkout(checkin.plusDays(3))
+                    .nights(3)
+                    .pricePerNight(200.0)
+                    .total(600.0)
+                    .build());
+        }
+    }
+
+    @Test
+    void cursorFromAnotherSortIsRejected() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/hotels").param("sort", "rating").param("limit", "1"))
+                .andExpect(status().isOk())
+                .andReturn();
+        String cursor = objectMapper.readTree(result.getResponse().getContentAsString()).get("nextCursor").asText();
+
+        mockMvc.perform(get("/api/hotels").param("sort", "price").param("cursor", cursor))
+                .andExpect(status().isBadRequest());
+    }
+}
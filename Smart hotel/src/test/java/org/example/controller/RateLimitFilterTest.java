@@ -0,0 +1,70 @@
+package org.example.controller;
+
+import org.example.ratelimit.RateLimitFilter;
+import org.example.ratelimit.RateLimiter;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RateLimitFilterTest {
+
+    private final RateLimiter rateLimiter = new RateLimiter(2, 5, 3, 0, 0);
+
+    private final RateLimitFilter filter = new RateLimitFilter(rateLimiter);
+
+    @AfterEach
+    void clearContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void clientsAreThrottledPerRouteGroup() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(call("/api/hotels", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+        MockHttpServletResponse throttled = call("/api/hotels/search", "10.0.0.1");
+        assertThat(throttled.getStatus()).isEqualTo(429);
+        assertThat(Integer.parseInt(throttled.getHeader("Retry-After"))).isBetween(1, 12);
+
+        // Other clients, other groups and unlimited groups keep their own budget
+        assertThat(call("/api/hotels", "10.0.0.2").getStatus()).isEqualTo(200);
+        assertThat(call("/api/auth/login", "10.0.0.1").getStatus()).isEqualTo(200);
+        for (int i = 0; i < 20; i++) {
+            assertThat(call("/api/manager/hotels", "10.0.0.1").getStatus()).isEqualTo(200);
+        }
+    }
+
+    @Test
+    void signedInUsersAreKeyedByEmail() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(new UsernamePasswordAuthenticationToken(
+                "guest@example.com", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        assertThat(call("/api/user/loyalty", "10.0.0.1").getStatus()).isEqualTo(200);
+        assertThat(call("/api/user/loyalty", "10.0.0.2").getStatus()).isEqualTo(200);
+        assertThat(call("/api/bookings", "10.0.0.3").getStatus()).isEqualTo(200);
+        assertThat(call("/api/user/loyalty", "10.0.0.4").getStatus()).isEqualTo(429);
+
+        SecurityContextHolder.clearContext();
+        assertThat(call("/api/user/loyalty", "10.0.0.4").getStatus()).isEqualTo(200);
+        @SuppressWarnings("unchecked")
+        Map<String, Object> user = (Map<String, Object>) rateLimiter.getStats().get("user");
+        assertThat(user).containsEntry("clients", 2).containsEntry("rejected", 1L);
+    }
+
+    private MockHttpServletResponse call(String path, String remoteAddress) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        request.setRemoteAddr(remoteAddress);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain());
+        return response;
+    }
+}
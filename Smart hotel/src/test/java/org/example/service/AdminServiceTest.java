@@ -0,0 +1,118 @@
+package org.example.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.dashboard.DashboardSnapshot;
+import org.example.entity.Hotel;
+import org.example.enums.HotelStatus;
+import org.example.repository.HotelRepository;
+import org.example.search.HotelDocument;
+import org.example.search.HotelDocumentLoader;
+import org.example.search.HotelSearchIndex;
+import org.example.search.HotelSort;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.reset;
+
+@SpringBootTest
+class AdminServiceTest {
+
+    @Autowired
+    private AdminService adminService;
+
+    @Autowired
+    private DashboardSnapshot dashboardSnapshot;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private HotelSearchIndex hotelSearchIndex;
+
+    @MockitoSpyBean
+    private HotelDocumentLoader hotelDocumentLoader;
+
+    @AfterEach
+    void cleanUp() {
+        reset(hotelDocumentLoader);
+        hotelRepository.deleteAll();
+        hotelSearchIndex.rebuild();
+    }
+
+    @Test
+    void dashboardIsServedFromTheSnapshotAndFollowsMutations() {
+        Hotel first = hotelRepository.save(pendingHotel("First"));
+        Hotel second = hotelRepository.save(pendingHotel("Second"));
+        dashboardSnapshot.refresh();
+        Map<String, Object> before = adminService.getDashboardStats();
+
+        adminService.approveHotel(first.getId());
+        adminService.rejectHotel(second.getId());
+        adminService.deleteHotel(second.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        Map<String, Object> after = adminService.getDashboardStats();
+        assertThat(statistics.getPrepareStatementCount()).isZero();
+
+        assertThat(after.get("approvedHotels")).isEqualTo((Long) before.get("approvedHotels") + 1);
+        assertThat(after.get("pendingHotels")).isEqualTo((Long) before.get("pendingHotels") - 2);
+        assertThat(after.get("rejectedHotels")).isEqualTo(before.get("rejectedHotels"));
+        assertThat(after.get("totalHotels")).isEqualTo((Long) before.get("totalHotels") - 1);
+
+        // The incremental counters agree with a full recount
+        dashboardSnapshot.refresh();
+        assertThat(withoutTimestamp(adminService.getDashboardStats())).isEqualTo(withoutTimestamp(after));
+    }
+
+    @Test
+    void changesCommittedDuringARebuildSurviveTheSwap() {
+        Hotel deleted = hotelRepository.save(pendingHotel("Deleted"));
+        Hotel approved = hotelRepository.save(pendingHotel("Approved"));
+        adminService.approveHotel(deleted.getId());
+
+        // The rebuild has already read the approved hotels when the admin's changes commit
+        doAnswer(invocation -> {
+            CompletableFuture.runAsync(() -> {
+                adminService.approveHotel(approved.getId());
+                adminService.deleteHotel(deleted.getId());
+            }).join();
+            return invocation.callRealMethod();
+        }).when(hotelDocumentLoader).load(anyList());
+        hotelSearchIndex.rebuild();
+
+        List<HotelDocument> indexed = hotelSearchIndex.search("goa", null, HotelSort.NEWEST, null, 10, hotel -> true);
+        assertThat(indexed).extracting(HotelDocument::getId).containsExactly(approved.getId());
+    }
+
+    private static Hotel pendingHotel(String name) {
+        return Hotel.builder()
+                .name(name)
+                .location("Goa")
+                .managerEmail("manager@example.com")
+                .status(HotelStatus.PENDING)
+                .build();
+    }
+
+    private static Map<String, Object> withoutTimestamp(Map<String, Object> stats) {
+        Map<String, Object> copy = new HashMap<>(stats);
+        copy.remove("refreshedAt");
+        return copy;
+    }
+}
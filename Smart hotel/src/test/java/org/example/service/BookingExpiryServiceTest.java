@@ -0,0 +1,111 @@
+package org.example.service;
+
+import org.example.dto.Request.BookingRequest;
+import org.example.entity.Hotel;
+import org.example.entity.Room;
+import org.example.enums.BookingStatus;
+import org.example.enums.HotelStatus;
+import org.example.enums.RoomType;
+import org.example.exceptions.RoomUnavailableException;
+import org.example.inventory.AvailabilityEngine;
+import org.example.repository.BookingRepository;
+import org.example.repository.HotelRepository;
+import org.example.repository.RoomInventoryDayRepository;
+import org.example.repository.RoomRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class BookingExpiryServiceTest {
+
+    @Autowired
+    private BookingExpiryService bookingExpiryService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AvailabilityEngine availabilityEngine;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomInventoryDayRepository roomInventoryDayRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Hotel hotel;
+
+    @BeforeEach
+    void seedHotel() {
+        hotel = hotelRepository.save(Hotel.builder()
+                .name("Expiry Hotel")
+                .location("Jaipur")
+                .managerEmail("manager@example.com")
+                .status(HotelStatus.APPROVED)
+                .build());
+        roomRepository.save(Room.builder().hotel(hotel).type(RoomType.DELUXE).price(100.0).available(1).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        roomInventoryDayRepository.deleteAll();
+        roomRepository.deleteAll();
+        hotelRepository.deleteAll();
+        availabilityEngine.evict(hotel.getId());
+    }
+
+    @Test
+    void expiredHoldsGiveTheirNightsBack() {
+        LocalDate checkin = LocalDate.now().plusDays(4);
+        LocalDate checkout = checkin.plusDays(2);
+        Long unpaid = Long.parseLong(book(checkin, checkout));
+        Long paying = Long.parseLong(book(checkout, checkout.plusDays(1)));
+        transactionTemplate.executeWithoutResult(status -> bookingRepository.updateStatus(
+                paying, BookingStatus.PENDING_PAYMENT, BookingStatus.PAYMENT_PROCESSING));
+        assertThat(availabilityEngine.available(hotel.getId(), RoomType.DELUXE, checkin, checkout)).isZero();
+        assertThatThrownBy(() -> book(checkin, checkout)).isInstanceOf(RoomUnavailableException.class);
+
+        // Both holds are past their deadline by then, but only the unpaid one may expire
+        assertThat(bookingExpiryService.expireHolds(pastTheHold())).isEqualTo(1);
+
+        assertThat(bookingRepository.findStatusById(unpaid)).isEqualTo(BookingStatus.EXPIRED);
+        assertThat(bookingRepository.findStatusById(paying)).isEqualTo(BookingStatus.PAYMENT_PROCESSING);
+        assertThat(availabilityEngine.available(hotel.getId(), RoomType.DELUXE, checkin, checkout)).isEqualTo(1);
+        assertThat(roomInventoryDayRepository.findAll())
+                .allSatisfy(day -> assertThat(day.getReserved())
+                        .isEqualTo(day.getStayDate().isBefore(checkout) ? 0 : 1));
+
+        // A second sweep finds nothing left to expire and the freed nights can be booked again
+        assertThat(bookingExpiryService.expireHolds(pastTheHold())).isZero();
+        book(checkin, checkout);
+    }
+
+    private LocalDateTime pastTheHold() {
+        return bookingExpiryService.holdDeadline(LocalDateTime.now()).plusMinutes(1);
+    }
+
+    private String book(LocalDate checkin, LocalDate checkout) {
+        return bookingService.createBooking(new BookingRequest(hotel.getId().toString(), RoomType.DELUXE.name(),
+                checkin.toString(), checkout.toString(), 0, 100.0, 100.0), "guest@example.com").getId();
+    }
+}
@@ -0,0 +1,291 @@
+package org.example.service;
+
+import org.example.dto.Request.BookingRequest;
+import org.example.dto.Response.BookingResponse;
+import org.example.dto.Response.CursorPageResponse;
+import org.example.dto.Response.ManagerBookingResponse;
+import org.example.entity.Booking;
+import org.example.entity.Hotel;
+import org.example.entity.RoomInventoryDay;
+import org.example.entity.Room;
+import org.example.enums.HotelStatus;
+import org.example.enums.RoomType;
+import org.example.exceptions.IdempotencyConflictException;
+import org.example.exceptions.RoomUnavailableException;
+import org.example.idempotency.IdempotencyService;
+import org.example.inventory.AvailabilityEngine;
+import org.example.repository.BookingRepository;
+import org.example.repository.HotelRepository;
+import org.example.repository.IdempotencyRecordRepository;
+import org.example.repository.RoomInventoryDayRepository;
+import org.example.repository.RoomRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class BookingServiceStressTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(BookingServiceStressTest.class);
+
+    private static final int THREADS = 16;
+    private static final int ATTEMPTS_PER_THREAD = 40;
+    private static final int CAPACITY = 10;
+    private static final RoomType[] TYPES = {RoomType.DELUXE, RoomType.SUITE};
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ManagerService managerService;
+
+    @Autowired
+    private AvailabilityEngine availabilityEngine;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomInventoryDayRepository roomInventoryDayRepository;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private Hotel hotel;
+
+    @BeforeEach
+    void seedHotel() {
+        hotel = hotelRepository.save(Hotel.builder()
+                .name("Stress Hotel")
+                .location("Goa")
+                .managerEmail("manager@example.com")
+                .status(HotelStatus.APPROVED)
+                .build());
+        for (RoomType type : TYPES) {
+            roomRepository.save(Room.builder().hotel(hotel).type(type).price(100.0).available(CAPACITY).build());
+        }
+    }
+
+    @AfterEach
+    void cleanUp() {
+        idempotencyRecordRepository.deleteAll();
+        bookingRepository.deleteAll();
+        roomInventoryDayRepository.deleteAll();
+        roomRepository.deleteAll();
+        hotelRepository.deleteAll();
+        availabilityEngine.evict(hotel.getId());
+    }
+
+    @Test
+    void burstOnTheSameNightsNeverOversells() throws Exception {
+        LocalDate checkin = LocalDate.now().plusDays(3);
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(THREADS * 2, 1, () -> book(RoomType.SUITE, checkin, checkin.plusDays(2), booked, rejected));
+
+        assertThat(booked.get()).isEqualTo(CAPACITY);
+        assertThat(rejected.get()).isEqualTo(THREADS * 2 - CAPACITY);
+        assertThat(availabilityEngine.available(hotel.getId(), RoomType.SUITE, checkin, checkin.plusDays(2))).isZero();
+    }
+
+    @Test
+    void overlappingStaysKeepEveryNightWithinCapacity() throws Exception {
+        LocalDate today = LocalDate.now();
+        AtomicInteger booked = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        long started = System.nanoTime();
+        runConcurrently(THREADS, ATTEMPTS_PER_THREAD, () -> {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            LocalDate checkin = today.plusDays(1 + random.nextInt(10));
+            book(TYPES[random.nextInt(TYPES.length)], checkin, checkin.plusDays(1 + random.nextInt(4)), booked, rejected);
+        });
+        double seconds = (System.nanoTime() - started) / 1_000_000_000.0;
+        logger.info("{} bookings and {} rejections from {} threads in {} ms ({} bookings/sec)",
+                booked.get(), rejected.get(), THREADS, Math.round(seconds * 1000), Math.round(booked.get() / seconds));
+
+        assertThat(booked.get() + rejected.get()).isEqualTo(THREADS * ATTEMPTS_PER_THREAD);
+        assertThat(booked.get()).isPositive();
+
+        List<Booking> bookings = bookingRepository.findAll();
+        assertThat(bookings).hasSize(booked.get());
+        List<RoomInventoryDay> ledger = roomInventoryDayRepository.findAll();
+        for (RoomType type : TYPES) {
+            for (LocalDate night = today.plusDays(1); night.isBefore(today.plusDays(15)); night = night.plusDays(1)) {
+                LocalDate day = night;
+                long sold = bookings.stream()
+                        .filter(b -> b.getRoomType() == type && !day.isBefore(b.getCheckin()) && day.isBefore(b.getCheckout()))
+                        .count();
+                assertThat(sold).as("%s on %s", type, day).isLessThanOrEqualTo(CAPACITY);
+                assertThat(availabilityEngine.available(hotel.getId(), type, day, day.plusDays(1)))
+                        .isEqualTo(CAPACITY - sold);
+                ledger.stream()
+                        .filter(row -> row.getRoomType() == type && row.getStayDate().equals(day))
+                        .forEach(row -> assertThat(row.getReserved()).as("ledger %s on %s", type, day).isEqualTo((int) sold));
+            }
+        }
+    }
+
+    @Test
+    void retriesWithTheSameIdempotencyKeyBookOnce() throws Exception {
+        LocalDate checkin = LocalDate.now().plusDays(2);
+        BookingRequest request = new BookingRequest(hotel.getId().toString(), RoomType.DELUXE.name(),
+                checkin.toString(), checkin.plusDays(1).toString(), 0, 100.0, 100.0);
+        AtomicInteger executed = new AtomicInteger();
+        AtomicInteger inProgress = new AtomicInteger();
+        ConcurrentLinkedQueue<ResponseEntity<?>> replays = new ConcurrentLinkedQueue<>();
+
+        runConcurrently(THREADS, 1, () -> {
+            try {
+                ResponseEntity<?> response = idempotencyService.execute("guest@example.com", "retry-1",
+                        "POST /api/user/bookings", request, () -> {
+                            executed.incrementAndGet();
+                            return bookingService.createBooking(request, "guest@example.com");
+                        });
+                if (response.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)) {
+                    replays.add(response);
+                }
+            } catch (IdempotencyConflictException e) {
+                inProgress.incrementAndGet();
+            }
+        });
+
+        assertThat(executed.get()).isEqualTo(1);
+        assertThat(replays.size() + inProgress.get()).isEqualTo(THREADS - 1);
+        assertThat(bookingRepository.findAll()).hasSize(1);
+
+        // Once the first request finished, a late retry replays the stored response
+        ResponseEntity<?> replay = idempotencyService.execute("guest@example.com", "retry-1",
+                "POST /api/user/bookings", request, () -> {
+                    throw new AssertionError("retry must not execute");
+                });
+        assertThat(replay.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+        assertThat(replay.getBody().toString()).contains(bookingRepository.findAll().get(0).getId().toString());
+        assertThat(bookingRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    void expiredIdempotencyKeysAreNotReplayed() {
+        LocalDate checkin = LocalDate.now().plusDays(2);
+        BookingRequest request = new BookingRequest(hotel.getId().toString(), RoomType.DELUXE.name(),
+                checkin.toString(), checkin.plusDays(1).toString(), 0, 100.0, 100.0);
+        AtomicInteger executed = new AtomicInteger();
+        Supplier<BookingResponse> action = () -> {
+            executed.incrementAndGet();
+            return bookingService.createBooking(request, "guest@example.com");
+        };
+        idempotencyService.execute("guest@example.com", "expiring-1", "POST /api/user/bookings", request, action);
+
+        // With no TTL left both the cached and the stored response are stale, so the key runs again
+        ReflectionTestUtils.setField(idempotencyService, "ttlHours", 0L);
+        try {
+            ResponseEntity<?> response = idempotencyService.execute("guest@example.com", "expiring-1",
+                    "POST /api/user/bookings", request, action);
+            assertThat(response.getHeaders().containsKey(IdempotencyService.REPLAYED_HEADER)).isFalse();
+        } finally {
+            ReflectionTestUtils.setField(idempotencyService, "ttlHours", 24L);
+        }
+        assertThat(executed.get()).isEqualTo(2);
+        assertThat(bookingRepository.findAll()).hasSize(2);
+        assertThat(idempotencyRecordRepository.findAll()).hasSize(1);
+    }
+
+    @Test
+    void bookingListsPageByCursorWithoutGapsOrRepeats() {
+        LocalDate today = LocalDate.now();
+        for (int i = 0; i < 7; i++) {
+            book(RoomType.DELUXE, today.plusDays(1 + i), today.plusDays(2 + i), new AtomicInteger(), new AtomicInteger());
+        }
+        bookingService.createBooking(new BookingRequest(hotel.getId().toString(), RoomType.SUITE.name(),
+                today.plusDays(1).toString(), today.plusDays(2).toString(), 0, 100.0, 100.0), "other@example.com");
+
+        List<String> userIds = new ArrayList<>();
+        String after = null;
+        int pages = 0;
+        do {
+            CursorPageResponse<BookingResponse> page = bookingService.getUserBookings("guest@example.com", 3, after);
+            page.getItems().forEach(booking -> userIds.add(booking.getId()));
+            after = page.getNextCursor();
+            pages++;
+        } while (after != null);
+        assertThat(pages).isEqualTo(3);
+        assertThat(userIds).hasSize(7).doesNotHaveDuplicates();
+
+        // The manager sees both guests, including a booking saved before manager emails were copied
+        Booking legacy = bookingRepository.findAll().get(0);
+        legacy.setManagerEmail(null);
+        bookingRepository.save(legacy);
+        managerService.backfillManagerEmails();
+        CursorPageResponse<ManagerBookingResponse> first = managerService.getManagerBookings("manager@example.com", 5, null);
+        CursorPageResponse<ManagerBookingResponse> second = managerService.getManagerBookings("manager@example.com", 5,
+                first.getNextCursor());
+        assertThat(first.getItems()).hasSize(5);
+        assertThat(second.getItems()).hasSize(3);
+        assertThat(second.getNextCursor()).isNull();
+    }
+
+    private void book(RoomType type, LocalDate checkin, LocalDate checkout, AtomicInteger booked, AtomicInteger rejected) {
+        BookingRequest request = new BookingRequest(hotel.getId().toString(), type.name(), checkin.toString(),
+                checkout.toString(), 0, 100.0, 100.0);
+        try {
+            bookingService.createBooking(request, "guest@example.com");
+            booked.incrementAndGet();
+        } catch (RoomUnavailableException e) {
+            rejected.incrementAndGet();
+        }
+    }
+
+    private void runConcurrently(int threads, int attemptsPerThread, Runnable attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        List<Runnable> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            workers.add(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < attemptsPerThread; i++) {
+                        attempt.run();
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        workers.forEach(executor::execute);
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        assertThat(failures).isEmpty();
+    }
+}
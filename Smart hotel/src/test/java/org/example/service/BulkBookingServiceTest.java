@@ -0,0 +1,186 @@
+package org.example.service;
+
+import org.example.dto.Request.BookingRequest;
+import org.example.dto.Request.BulkBookingRequest;
+import org.example.dto.Response.BookingResponse;
+import org.example.dto.Response.BulkBookingResponse;
+import org.example.entity.Hotel;
+import org.example.entity.Room;
+import org.example.entity.RoomInventoryDay;
+import org.example.enums.HotelStatus;
+import org.example.enums.RoomType;
+import org.example.exceptions.ResourceNotFoundException;
+import org.example.exceptions.RoomUnavailableException;
+import org.example.inventory.AvailabilityEngine;
+import org.example.repository.BookingRepository;
+import org.example.repository.HotelRepository;
+import org.example.repository.IdGeneratorRepository;
+import org.example.repository.RoomInventoryDayRepository;
+import org.example.repository.RoomRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.atMost;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class BulkBookingServiceTest {
+
+    private static final String EMAIL = "group@example.com";
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private AvailabilityEngine availabilityEngine;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private RoomInventoryDayRepository roomInventoryDayRepository;
+
+    @MockitoSpyBean
+    private IdBlockAllocator idBlockAllocator;
+
+    @MockitoSpyBean
+    private IdGeneratorRepository idGeneratorRepository;
+
+    private Hotel hotel;
+
+    @BeforeEach
+    void seedHotel() {
+        hotel = hotelRepository.save(Hotel.builder()
+                .name("Group Hotel")
+                .location("Udaipur")
+                .managerEmail("manager@example.com")
+                .status(HotelStatus.APPROVED)
+                .build());
+        roomRepository.save(Room.builder().hotel(hotel).type(RoomType.DELUXE).price(100.0)
+                .available(BookingService.MAX_BULK_BOOKINGS).build());
+        roomRepository.save(Room.builder().hotel(hotel).type(RoomType.SUITE).price(200.0).available(1).build());
+        reset(idBlockAllocator, idGeneratorRepository);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        bookingRepository.deleteAll();
+        roomInventoryDayRepository.deleteAll();
+        roomRepository.deleteAll();
+        hotelRepository.deleteAll();
+        availabilityEngine.evict(hotel.getId());
+    }
+
+    @Test
+    void fullListIsBookedWithIdsFromOneAllocation() {
+        LocalDate checkin = LocalDate.now().plusDays(3);
+        List<BookingRequest> items = new ArrayList<>();
+        for (int i = 0; i < BookingService.MAX_BULK_BOOKINGS; i++) {
+            items.add(item(RoomType.DELUXE, checkin.plusDays(i % 2), checkin.plusDays(2)));
+        }
+
+        BulkBookingResponse response = bookingService.createBookings(new BulkBookingRequest(items), EMAIL);
+
+        // One allocation for the whole list, needing at most one block refill
+        verify(idBlockAllocator, times(1)).allocate(eq("bookings"), eq(BookingService.MAX_BULK_BOOKINGS), any());
+        verify(idGeneratorRepository, atMost(1)).findForUpdate("bookings");
+        List<Long> ids = response.getBookingIds().stream().map(Long::valueOf).toList();
+        assertThat(ids).doesNotHaveDuplicates().isSorted();
+        assertThat(response.getBookings()).extracting(BookingResponse::getId).containsExactlyElementsOf(response.getBookingIds());
+        assertThat(idGeneratorRepository.findById("bookings").orElseThrow().getNextVal()).isGreaterThan(ids.get(ids.size() - 1));
+        assertThat(bookingRepository.count()).isEqualTo(BookingService.MAX_BULK_BOOKINGS);
+        assertThat(availabilityEngine.available(hotel.getId(), RoomType.DELUXE, checkin.plusDays(1), checkin.plusDays(2))).isZero();
+        assertThat(availabilityEngine.available(hotel.getId(), RoomType.DELUXE, checkin, checkin.plusDays(1)))
+                .isEqualTo(BookingService.MAX_BULK_BOOKINGS / 2);
+    }
+
+    @Test
+    void soldOutItemLeavesNoBookingAndNoLedgerChange() {
+        LocalDate checkin = LocalDate.now().plusDays(5);
+        LocalDate checkout = checkin.plusDays(2);
+        bookingService.createBookings(new BulkBookingRequest(List.of(item(RoomType.SUITE, checkin, checkout))), EMAIL);
+        Map<String, Integer> ledger = ledger();
+        long bookings = bookingRepository.count();
+
+        // DELUXE sorts before SUITE, so its nights are already held when the suite is refused
+        List<BookingRequest> items = List.of(
+                item(RoomType.DELUXE, checkin, checkout),
+                item(RoomType.DELUXE, checkin, checkout),
+                item(RoomType.SUITE, checkin.plusDays(1), checkout.plusDays(1)));
+        assertThatThrownBy(() -> bookingService.createBookings(new BulkBookingRequest(items), EMAIL))
+                .isInstanceOf(RoomUnavailableException.class);
+
+        assertThat(bookingRepository.count()).isEqualTo(bookings);
+        assertThat(ledger()).isEqualTo(ledger);
+        assertThat(availabilityEngine.available(hotel.getId(), RoomType.DELUXE, checkin, checkout))
+                .isEqualTo(BookingService.MAX_BULK_BOOKINGS);
+        assertThat(availabilityEngine.available(hotel.getId(), RoomType.SUITE, checkout, checkout.plusDays(1))).isEqualTo(1);
+    }
+
+    @Test
+    void invalidItemsAreRejectedBeforeAnythingIsReserved() {
+        LocalDate checkin = LocalDate.now().plusDays(7);
+        BookingRequest valid = item(RoomType.DELUXE, checkin, checkin.plusDays(1));
+        BookingRequest backwards = item(RoomType.DELUXE, checkin.plusDays(1), checkin);
+        BookingRequest unknownHotel = new BookingRequest(String.valueOf(hotel.getId() + 1000), RoomType.DELUXE.name(),
+                checkin.toString(), checkin.plusDays(1).toString(), 1, 100.0, 100.0);
+
+        assertThatThrownBy(() -> bookingService.createBookings(new BulkBookingRequest(List.of(valid, backwards)), EMAIL))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageStartingWith("Booking 2: ");
+        assertThatThrownBy(() -> bookingService.createBookings(new BulkBookingRequest(List.of(valid, unknownHotel)), EMAIL))
+                .isInstanceOf(ResourceNotFoundException.class)
+                .hasMessageStartingWith("Booking 2: ");
+        List<BookingRequest> tooMany = new ArrayList<>();
+        for (int i = 0; i <= BookingService.MAX_BULK_BOOKINGS; i++) {
+            tooMany.add(valid);
+        }
+        assertThatThrownBy(() -> bookingService.createBookings(new BulkBookingRequest(tooMany), EMAIL))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining(String.valueOf(BookingService.MAX_BULK_BOOKINGS));
+
+        verify(idBlockAllocator, never()).allocate(anyString(), anyInt(), any());
+        assertThat(bookingRepository.count()).isZero();
+        assertThat(roomInventoryDayRepository.count()).isZero();
+        assertThat(availabilityEngine.available(hotel.getId(), RoomType.DELUXE, checkin, checkin.plusDays(1)))
+                .isEqualTo(BookingService.MAX_BULK_BOOKINGS);
+    }
+
+    // Reserved nights only; a hold seeds the rows of its days with nothing reserved
+    private Map<String, Integer> ledger() {
+        return roomInventoryDayRepository.findAll().stream()
+                .filter(day -> day.getReserved() > 0)
+                .collect(Collectors.toMap(
+                        day -> day.getRoomType() + "@" + day.getStayDate(), RoomInventoryDay::getReserved));
+    }
+
+    private BookingRequest item(RoomType roomType, LocalDate checkin, LocalDate checkout) {
+        return new BookingRequest(hotel.getId().toString(), roomType.name(), checkin.toString(), checkout.toString(),
+                1, 100.0, 100.0);
+    }
+}
@@ -0,0 +1,169 @@
+package org.example.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import org.example.dto.Response.ReviewResponse;
+import org.example.dto.Response.ReviewSummaryResponse;
+import org.example.entity.Booking;
+import org.example.entity.Hotel;
+import org.example.enums.HotelStatus;
+import org.example.enums.RoomType;
+import org.example.repository.BookingRepository;
+import org.example.repository.HotelRepository;
+import org.example.repository.LoyaltyHistoryRepository;
+import org.example.repository.LoyaltyRepository;
+import org.example.repository.ReviewRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class HotelRatingServiceTest {
+
+    private static final String EMAIL = "critic@example.com";
+
+    @Autowired
+    private ReviewService reviewService;
+
+    @Autowired
+    private HotelRatingService hotelRatingService;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ReviewRepository reviewRepository;
+
+    @Autowired
+    private LoyaltyRepository loyaltyRepository;
+
+    @Autowired
+    private LoyaltyHistoryRepository loyaltyHistoryRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Hotel hotel;
+
+    @BeforeEach
+    void seedHotel() {
+        hotel = hotelRepository.save(Hotel.builder()
+                .name("Rated Hotel")
+                .location("Pune")
+                .managerEmail("manager@example.com")
+                .status(HotelStatus.APPROVED)
+                .build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        reviewRepository.deleteAll();
+        loyaltyHistoryRepository.deleteAll();
+        loyaltyRepository.deleteAll();
+        bookingRepository.deleteAll();
+        hotelRepository.deleteAll();
+    }
+
+    @Test
+    void reviewsUpdateAggregatesWithConstantStatements() {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        long[] statementsPerReview = new long[6];
+        int[] stars = {5, 4, 4, 2, 5, 3};
+        for (int i = 0; i < stars.length; i++) {
+            Long bookingId = book(i);
+            statistics.clear();
+            reviewService.addReview(Map.of("bookingId", bookingId, "hotelId", hotel.getId(),
+                    "rating", stars[i], "comment", "Stay " + i), EMAIL);
+            statementsPerReview[i] = statistics.getPrepareStatementCount();
+        }
+
+        // The first review also opens the loyalty account; after that the sixth costs exactly what the second did
+        assertThat(Arrays.copyOfRange(statementsPerReview, 1, stars.length)).containsOnly(statementsPerReview[1]);
+
+        Hotel rated = hotelRepository.findById(hotel.getId()).orElseThrow();
+        assertThat(rated.getRatingSum()).isEqualTo(23L);
+        assertThat(rated.getRatingCount()).isEqualTo(6);
+        assertThat(new int[]{rated.getStars1(), rated.getStars2(), rated.getStars3(), rated.getStars4(), rated.getStars5()})
+                .containsExactly(0, 1, 1, 2, 2);
+        assertThat(rated.getRating()).isEqualTo(3.8);
+
+        // Saving a stale copy of the hotel must not roll the aggregates back
+        hotel.setDescription("Renovated");
+        hotelRepository.save(hotel);
+        assertThat(hotelRepository.findById(hotel.getId()).orElseThrow().getRatingCount()).isEqualTo(6);
+    }
+
+    @Test
+    void recomputeRepairsDriftedAggregates() {
+        reviewService.addReview(Map.of("bookingId", book(0), "hotelId", hotel.getId(),
+                "rating", 4, "comment", "Good"), EMAIL);
+        reviewService.addReview(Map.of("bookingId", book(1), "hotelId", hotel.getId(),
+                "rating", 2, "comment", "Noisy"), EMAIL);
+        transactionTemplate.executeWithoutResult(status ->
+                hotelRepository.setRatings(hotel.getId(), 6, 2, 40, 9, 1, 1, 1, 1, 5, 4.4));
+
+        hotelRatingService.recomputeAll();
+
+        Hotel repaired = hotelRepository.findById(hotel.getId()).orElseThrow();
+        assertThat(repaired.getRatingSum()).isEqualTo(6L);
+        assertThat(repaired.getRatingCount()).isEqualTo(2);
+        assertThat(repaired.getStars2()).isEqualTo(1);
+        assertThat(repaired.getStars4()).isEqualTo(1);
+        assertThat(repaired.getStars5()).isZero();
+        assertThat(repaired.getRating()).isEqualTo(3.0);
+    }
+
+    @Test
+    void summaryServesLatestReviewsFromTheRing() {
+        reviewService.addReview(Map.of("bookingId", book(0), "hotelId", hotel.getId(),
+                "rating", 3, "comment", "Before anyone looked"), EMAIL);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        assertThat(reviewService.getReviewSummary(hotel.getId(), null).getRecent()).hasSize(1);
+
+        for (int i = 1; i <= 11; i++) {
+            reviewService.addReview(Map.of("bookingId", book(i), "hotelId", hotel.getId(),
+                    "rating", 1 + i % 5, "comment", "Stay " + i), EMAIL);
+        }
+        statistics.clear();
+        ReviewSummaryResponse summary = reviewService.getReviewSummary(hotel.getId(), 3);
+
+        // Only the aggregate row is read, the reviews come from memory
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(summary.getCount()).isEqualTo(12);
+        assertThat(summary.getHistogram()).containsExactly(2, 3, 3, 2, 2);
+        assertThat(summary.getRecent()).extracting(ReviewResponse::getComment)
+                .containsExactly("Stay 11", "Stay 10", "Stay 9");
+        assertThat(reviewService.getReviewSummary(hotel.getId(), 50).getRecent()).hasSize(10);
+    }
+
+    private Long book(int index) {
+        LocalDate checkin = LocalDate.now().minusDays(10 + index * 3L);
+        return bookingRepository.save(Booking.builder()
+                .id(hotel.getId() * 1000 + index)
+                .hotel(hotel)
+                .userEmail(EMAIL)
+                .roomType(RoomType.STANDARD)
+                .checkin(checkin)
+                .checkout(checkin.plusDays(2))
+                .nights(2)
+                .pricePerNight(100.0)
+                .total(200.0)
+                .build()).getId();
+    }
+}
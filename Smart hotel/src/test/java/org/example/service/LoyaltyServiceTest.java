@@ -0,0 +1,111 @@
+package org.example.service;
+
+import org.example.entity.Loyalty;
+import org.example.enums.LoyaltyHistoryType;
+import org.example.repository.LoyaltyHistoryRepository;
+import org.example.repository.LoyaltyRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class LoyaltyServiceTest {
+
+    private static final String EMAIL = "loyal@example.com";
+    private static final int THREADS = 16;
+    private static final int OPERATIONS_PER_THREAD = 50;
+
+    @Autowired
+    private LoyaltyService loyaltyService;
+
+    @Autowired
+    private LoyaltyRepository loyaltyRepository;
+
+    @Autowired
+    private LoyaltyHistoryRepository loyaltyHistoryRepository;
+
+    @AfterEach
+    void cleanUp() {
+        loyaltyHistoryRepository.deleteAll();
+        loyaltyRepository.deleteAll();
+    }
+
+    @Test
+    void concurrentRewardsAndRedemptionsKeepTheBalanceExact() throws Exception {
+        AtomicInteger earned = new AtomicInteger();
+        AtomicInteger redeemed = new AtomicInteger();
+        AtomicInteger refused = new AtomicInteger();
+
+        // Every thread starts with rewards and the account does not exist yet, so creation races too
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        CountDownLatch start = new CountDownLatch(1);
+        ConcurrentLinkedQueue<Throwable> failures = new ConcurrentLinkedQueue<>();
+        for (int t = 0; t < THREADS; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < OPERATIONS_PER_THREAD; i++) {
+                        if (i % 3 == 2) {
+                            try {
+                                loyaltyService.redeemPoints(EMAIL, 25, "Redeem " + i);
+                                redeemed.addAndGet(25);
+                            } catch (RuntimeException e) {
+                                refused.incrementAndGet();
+                            }
+                        } else {
+                            loyaltyService.awardPoints(EMAIL, 10, "Reward " + i);
+                            earned.addAndGet(10);
+                        }
+                    }
+                } catch (Throwable e) {
+                    failures.add(e);
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        assertThat(failures).isEmpty();
+
+        Loyalty loyalty = loyaltyRepository.findByUserEmail(EMAIL).orElseThrow();
+        assertThat(loyaltyRepository.findAll()).hasSize(1);
+        assertThat(loyalty.getTotalEarned()).isEqualTo(earned.get());
+        assertThat(loyalty.getPoints()).isEqualTo(earned.get());
+        assertThat(loyalty.getTotalRedeemed()).isEqualTo(redeemed.get());
+        assertThat(loyalty.getAvailable()).isEqualTo(earned.get() - redeemed.get()).isNotNegative();
+
+        List<Integer> earnedHistory = new ArrayList<>();
+        List<Integer> redeemedHistory = new ArrayList<>();
+        loyaltyService.getLoyaltyHistory(EMAIL).forEach(entry ->
+                (entry.getType() == LoyaltyHistoryType.EARNED ? earnedHistory : redeemedHistory).add(entry.getPoints()));
+        assertThat(earnedHistory.stream().mapToInt(Integer::intValue).sum()).isEqualTo(earned.get());
+        assertThat(redeemedHistory.stream().mapToInt(Integer::intValue).sum()).isEqualTo(redeemed.get());
+        assertThat(redeemedHistory.size() + refused.get()).isEqualTo(THREADS * (OPERATIONS_PER_THREAD / 3));
+    }
+
+    @Test
+    void redeemingMoreThanAvailableChangesNothing() {
+        loyaltyService.awardPoints(EMAIL, 40, "Welcome bonus");
+
+        assertThatThrownBy(() -> loyaltyService.redeemPoints(EMAIL, 41, "Too much"))
+                .hasMessageContaining("Available: 40");
+
+        Loyalty loyalty = loyaltyRepository.findByUserEmail(EMAIL).orElseThrow();
+        assertThat(loyalty.getAvailable()).isEqualTo(40);
+        assertThat(loyalty.getTotalRedeemed()).isZero();
+        assertThat(loyaltyService.getLoyaltyHistory(EMAIL)).hasSize(1);
+    }
+}
@@ -0,0 +1,317 @@
+package org.example.service;
+
+import org.example.analytics.HotelDailyRollup;
+import org.example.dto.Request.BookingRequest;
+import org.example.dto.Response.AnalyticsPeriodResponse;
+import org.example.dto.Response.HotelAnalyticsResponse;
+import org.example.dto.Response.PaymentResponse;
+import org.example.entity.Hotel;
+import org.example.entity.Room;
+import org.example.enums.BookingStatus;
+import org.example.enums.HotelStatus;
+import org.example.enums.PaymentStatus;
+import org.example.enums.RoomType;
+import org.example.exceptions.DuplicatePaymentException;
+import org.example.inventory.AvailabilityEngine;
+import org.example.payment.PaymentAuthorization;
+import org.example.payment.PaymentGateway;
+import org.example.payment.PaymentProcessor;
+import org.example.repository.BookingRepository;
+import org.example.repository.HotelDailyStatsRepository;
+import org.example.repository.HotelRepository;
+import org.example.repository.LoyaltyHistoryRepository;
+import org.example.repository.LoyaltyRepository;
+import org.example.repository.PaymentRepository;
+import org.example.repository.RoomInventoryDayRepository;
+import org.example.repository.RoomRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.reset;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@SpringBootTest
+class PaymentServiceTest {
+
+    private static final int GUESTS = 20;
+
+    @Autowired
+    private PaymentService paymentService;
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private LoyaltyService loyaltyService;
+
+    @Autowired
+    private ManagerService managerService;
+
+    @Autowired
+    private AvailabilityEngine availabilityEngine;
+
+    @Autowired
+    private HotelRepository hotelRepository;
+
+    @Autowired
+    private RoomRepository roomRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private LoyaltyRepository loyaltyRepository;
+
+    @Autowired
+    private LoyaltyHistoryRepository loyaltyHistoryRepository;
+
+    @Autowired
+    private RoomInventoryDayRepository roomInventoryDayRepository;
+
+    @Autowired
+    private HotelDailyStatsRepository hotelDailyStatsRepository;
+
+    @Autowired
+    private PaymentProcessor paymentProcessor;
+
+    @Autowired
+    private BookingExpiryService bookingExpiryService;
+
+    @Autowired
+    private HotelDailyRollup hotelDailyRollup;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @MockitoSpyBean
+    private PaymentGateway paymentGateway;
+
+    private Hotel hotel;
+
+    @BeforeEach
+    void seedHotel() {
+        reset(paymentGateway);
+        hotel = hotelRepository.save(Hotel.builder()
+                .name("Payment Hotel")
+                .location("Jaipur")
+                .managerEmail("manager@example.com")
+                .status(HotelStatus.APPROVED)
+                .build());
+        roomRepository.save(Room.builder().hotel(hotel).type(RoomType.DELUXE).price(120.0).available(GUESTS).build());
+    }
+
+    @AfterEach
+    void cleanUp() {
+        paymentRepository.deleteAll();
+        loyaltyHistoryRepository.deleteAll();
+        loyaltyRepository.deleteAll();
+        bookingRepository.deleteAll();
+        roomInventoryDayRepository.deleteAll();
+        hotelDailyStatsRepository.deleteAll();
+        roomRepository.deleteAll();
+        hotelRepository.deleteAll();
+        availabilityEngine.evict(hotel.getId());
+    }
+
+    @Test
+    void concurrentPaymentsAreAcceptedThenAuthorizedOffTheRequestThread() throws Exception {
+        List<Long> bookingIds = new ArrayList<>();
+        for (int i = 0; i < GUESTS; i++) {
+            bookingIds.add(book("guest" + i + "@example.com"));
+        }
+
+        ExecutorService clients = Executors.newFixedThreadPool(8);
+        List<Future<PaymentResponse>> accepted = new ArrayList<>();
+        for (int i = 0; i < GUESTS; i++) {
+            String email = "guest" + i + "@example.com";
+            Long bookingId = bookingIds.get(i);
+            accepted.add(clients.submit(() -> paymentService.createPayment(paymentData(bookingId, 0), email)));
+        }
+        for (Future<PaymentResponse> response : accepted) {
+            assertThat(response.get(30, TimeUnit.SECONDS).getStatus()).isEqualTo(PaymentStatus.PENDING.name());
+        }
+        clients.shutdown();
+
+        awaitSettled(GUESTS);
+        assertThat(paymentRepository.findAll()).allMatch(p -> p.getStatus() == PaymentStatus.AUTHORIZED);
+        assertThat(bookingRepository.findAll()).allMatch(b -> b.getStatus() == BookingStatus.PAID);
+        assertThat(loyaltyService.getUserLoyalty("guest0@example.com").getAvailable()).isEqualTo(50);
+
+        assertThatThrownBy(() -> paymentService.createPayment(paymentData(bookingIds.get(0), 0), "guest0@example.com"))
+                .isInstanceOf(DuplicatePaymentException.class);
+    }
+
+    @Test
+    void declinedPaymentReleasesTheBookingAndRestoresPoints() throws Exception {
+        doReturn(PaymentAuthorization.declined("SIM-X", "Declined by issuer"))
+                .when(paymentGateway).authorize(anyLong(), anyDouble(), any(), anyString());
+        String email = "decline@example.com";
+        loyaltyService.awardPoints(email, 30, "Welcome bonus");
+        Long bookingId = book(email);
+
+        // The charge is the booking total less the points, never an amount the client picked
+        Map<String, Object> tampered = new HashMap<>(paymentData(bookingId, 30));
+        tampered.put("amount", 1.0);
+        assertThatThrownBy(() -> paymentService.createPayment(tampered, email))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> paymentService.createPayment(paymentData(bookingId, 241), email))
+                .isInstanceOf(IllegalArgumentException.class);
+
+        paymentService.createPayment(paymentData(bookingId, 30), email);
+        awaitSettled(1);
+        verify(paymentGateway).authorize(anyLong(), eq(210.0), any(), anyString());
+
+        assertThat(paymentRepository.findAll().get(0).getStatus()).isEqualTo(PaymentStatus.DECLINED);
+        assertThat(bookingRepository.findStatusById(bookingId)).isEqualTo(BookingStatus.PENDING_PAYMENT);
+        assertThat(loyaltyService.getUserLoyalty(email).getAvailable()).isEqualTo(30);
+
+        // The hold is payable again once the decline is settled
+        reset(paymentGateway);
+        paymentService.createPayment(paymentData(bookingId, 0), email);
+        awaitSettled(2);
+        assertThat(bookingRepository.findStatusById(bookingId)).isEqualTo(BookingStatus.PAID);
+    }
+
+    @Test
+    void declineLateInTheHoldStartsAFreshOne() throws Exception {
+        doReturn(PaymentAuthorization.declined("SIM-X", "Declined by issuer"))
+                .when(paymentGateway).authorize(anyLong(), anyDouble(), any(), anyString());
+        String email = "late@example.com";
+        Long bookingId = book(email);
+        // The guest only gets to pay a minute before the hold runs out
+        LocalDateTime almostOver = LocalDateTime.now().plusMinutes(1);
+        transactionTemplate.executeWithoutResult(status -> bookingRepository.updateStatusAndHold(
+                bookingId, BookingStatus.PENDING_PAYMENT, BookingStatus.PENDING_PAYMENT, almostOver));
+
+        paymentService.createPayment(paymentData(bookingId, 0), email);
+        awaitSettled(1);
+        assertThat(bookingRepository.findStatusById(bookingId)).isEqualTo(BookingStatus.PENDING_PAYMENT);
+
+        // A sweep after the original deadline leaves the hold alone, one after the new deadline expires it
+        assertThat(bookingExpiryService.expireHolds(almostOver.plusMinutes(1))).isZero();
+        assertThat(bookingRepository.findStatusById(bookingId)).isEqualTo(BookingStatus.PENDING_PAYMENT);
+        assertThat(bookingExpiryService.expireHolds(bookingExpiryService.holdDeadline(almostOver).plusMinutes(1)))
+                .isEqualTo(1);
+        assertThat(bookingRepository.findStatusById(bookingId)).isEqualTo(BookingStatus.EXPIRED);
+    }
+
+    @Test
+    void unreachableGatewayLeavesThePaymentPendingUntilARetryAnswers() throws Exception {
+        doThrow(new IllegalStateException("Connection reset")).doCallRealMethod()
+                .when(paymentGateway).authorize(anyLong(), anyDouble(), any(), anyString());
+        String email = "retry@example.com";
+        loyaltyService.awardPoints(email, 40, "Welcome bonus");
+        Long bookingId = book(email);
+
+        paymentService.createPayment(paymentData(bookingId, 40), email);
+        verify(paymentGateway, timeout(5000)).authorize(anyLong(), anyDouble(), any(), anyString());
+        assertThat(paymentRepository.findAll().get(0).getStatus()).isEqualTo(PaymentStatus.PENDING);
+        assertThat(bookingRepository.findStatusById(bookingId)).isEqualTo(BookingStatus.PAYMENT_PROCESSING);
+        assertThat(loyaltyService.getUserLoyalty(email).getAvailable()).isZero();
+
+        // The retry skips the payment until the failed attempt has let go of it, then asks again
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (paymentRepository.findAll().get(0).getStatus() == PaymentStatus.PENDING) {
+            assertThat(System.currentTimeMillis()).as("payment retried in time").isLessThan(deadline);
+            paymentProcessor.resumePending();
+            Thread.sleep(20);
+        }
+        assertThat(paymentRepository.findAll().get(0).getStatus()).isEqualTo(PaymentStatus.AUTHORIZED);
+        assertThat(bookingRepository.findStatusById(bookingId)).isEqualTo(BookingStatus.PAID);
+        verify(paymentGateway, times(2)).authorize(anyLong(), eq(200.0), any(), anyString());
+    }
+
+    @Test
+    void paidBookingsRollUpIntoManagerAnalytics() throws Exception {
+        for (int i = 0; i < 3; i++) {
+            String email = "analytics" + i + "@example.com";
+            paymentService.createPayment(paymentData(book(email), 0), email);
+        }
+        awaitSettled(3);
+
+        LocalDate checkin = LocalDate.now().plusDays(4);
+        List<HotelAnalyticsResponse> report = managerService.getAnalytics("manager@example.com", hotel.getId(),
+                checkin.minusDays(1).toString(), checkin.plusDays(2).toString(), "day");
+
+        assertThat(report).hasSize(1);
+        assertThat(report.get(0).getPeriods()).extracting(AnalyticsPeriodResponse::getRoomNightsSold)
+                .containsExactly(0, 3, 3, 0);
+        AnalyticsPeriodResponse night = report.get(0).getPeriods().get(1);
+        assertThat(night.getRevenue()).isEqualTo(360.0);
+        assertThat(night.getAdr()).isEqualTo(120.0);
+        assertThat(night.getOccupancy()).isEqualTo(0.15);
+        assertThat(report.get(0).getTotal().getRoomNightsSold()).isEqualTo(6);
+        assertThat(report.get(0).getTotal().getRevenue()).isEqualTo(720.0);
+    }
+
+    @Test
+    void backfillCountsEveryPaidBookingExactlyOnce() throws Exception {
+        String email = "live@example.com";
+        paymentService.createPayment(paymentData(book(email), 0), email);
+        awaitSettled(1);
+        // Paid before the rollup existed, so nothing has counted it yet
+        Long legacy = book("legacy@example.com");
+        transactionTemplate.executeWithoutResult(status ->
+                bookingRepository.updateStatus(legacy, BookingStatus.PENDING_PAYMENT, BookingStatus.PAID));
+
+        // A second run, or a second node, finds nothing left to count
+        hotelDailyRollup.backfill();
+        hotelDailyRollup.backfill();
+
+        LocalDate checkin = LocalDate.now().plusDays(4);
+        List<HotelAnalyticsResponse> report = managerService.getAnalytics("manager@example.com", hotel.getId(),
+                checkin.toString(), checkin.plusDays(1).toString(), "day");
+        assertThat(report.get(0).getTotal().getRoomNightsSold()).isEqualTo(4);
+        assertThat(report.get(0).getTotal().getRevenue()).isEqualTo(480.0);
+    }
+
+    private Long book(String email) {
+        LocalDate checkin = LocalDate.now().plusDays(4);
+        BookingRequest request = new BookingRequest(hotel.getId().toString(), RoomType.DELUXE.name(),
+                checkin.toString(), checkin.plusDays(2).toString(), 0, 0.0, 0.0);
+        return Long.valueOf(bookingService.createBooking(request, email).getId());
+    }
+
+    private Map<String, Object> paymentData(Long bookingId, int points) {
+        return Map.of("bookingId", bookingId, "amount", 240.0, "method", "card", "details", "test",
+                "loyaltyPointsUsed", points);
+    }
+
+    private void awaitSettled(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (paymentRepository.findAll().stream().filter(p -> p.getStatus() != PaymentStatus.PENDING).count() < expected) {
+            assertThat(System.currentTimeMillis()).as("payments settled in time").isLessThan(deadline);
+            Thread.sleep(20);
+        }
+    }
+}